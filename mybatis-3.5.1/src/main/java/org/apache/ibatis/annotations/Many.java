@@ -33,4 +33,18 @@ public @interface Many {
 
   FetchType fetchType() default FetchType.DEFAULT;
 
+  /**
+   * Number of parent rows whose select is run as one query, 0 to run it for every row.
+   *
+   * @since 3.5.2
+   */
+  int batchSize() default 0;
+
+  /**
+   * Property of the selected objects holding the key of their parent row, required when batchSize is set.
+   *
+   * @since 3.5.2
+   */
+  String batchKey() default "";
+
 }
@@ -46,6 +46,19 @@ public @interface Options {
 
   boolean useCache() default true;
 
+  /**
+   * Whether concurrent executions of this select with the same parameters share a single database round trip.
+   * Sessions waiting on the query get a serialized copy of the results read by the session running it, or run the
+   * query themselves if the results are not serializable. Sessions with uncommitted writes never coalesce.
+   */
+  boolean coalesce() default false;
+
+  /**
+   * Whether the rows of this select are ordered by the id of the top level result, so nested results are handed
+   * out as soon as the next one starts.
+   */
+  boolean resultOrdered() default false;
+
   FlushCachePolicy flushCache() default FlushCachePolicy.DEFAULT;
 
   ResultSetType resultSetType() default ResultSetType.DEFAULT;
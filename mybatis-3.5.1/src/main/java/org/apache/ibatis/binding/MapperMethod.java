@@ -23,10 +23,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.result.ColumnarResult;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
@@ -58,6 +61,11 @@ public class MapperMethod {
     Object result;
     switch (command.getType()) {
       case INSERT: {
+        if (method.streamsParameters()) {
+          int chunkSize = sqlSession.getConfiguration().getDefaultInsertChunkSize();
+          result = rowCountResult(sqlSession.insertAll(command.getName(), (Stream<?>) args[0], chunkSize));
+          break;
+        }
         Object param = method.convertArgsToSqlCommandParam(args);
         result = rowCountResult(sqlSession.insert(command.getName(), param));
         break;
@@ -82,6 +90,10 @@ public class MapperMethod {
           result = executeForMap(sqlSession, args);
         } else if (method.returnsCursor()) {
           result = executeForCursor(sqlSession, args);
+        } else if (method.returnsStream()) {
+          result = executeForCursor(sqlSession, args).stream();
+        } else if (method.returnsColumns()) {
+          result = executeForColumns(sqlSession, args);
         } else {
           Object param = method.convertArgsToSqlCommandParam(args);
           result = sqlSession.selectOne(command.getName(), param);
@@ -101,6 +113,9 @@ public class MapperMethod {
       throw new BindingException("Mapper method '" + command.getName()
           + " attempted to return null from a method with a primitive return type (" + method.getReturnType() + ").");
     }
+    if (method.returnsFuture()) {
+      return CompletableFuture.completedFuture(result);
+    }
     return result;
   }
 
@@ -169,6 +184,15 @@ public class MapperMethod {
     return result;
   }
 
+  private ColumnarResult executeForColumns(SqlSession sqlSession, Object[] args) {
+    Object param = method.convertArgsToSqlCommandParam(args);
+    if (method.hasRowBounds()) {
+      RowBounds rowBounds = method.extractRowBounds(args);
+      return sqlSession.selectColumns(command.getName(), param, rowBounds);
+    }
+    return sqlSession.selectColumns(command.getName(), param);
+  }
+
   private <E> Object convertToDeclaredCollection(Configuration config, List<E> list) {
     Object collection = config.getObjectFactory().create(method.getReturnType());
     MetaObject metaObject = config.newMetaObject(collection);
@@ -278,7 +302,11 @@ public class MapperMethod {
     private final boolean returnsMap;
     private final boolean returnsVoid;
     private final boolean returnsCursor;
+    private final boolean returnsStream;
+    private final boolean returnsColumns;
     private final boolean returnsOptional;
+    private final boolean returnsFuture;
+    private final boolean streamsParameters;
     private final Class<?> returnType;
     private final String mapKey;
     private final Integer resultHandlerIndex;
@@ -287,21 +315,30 @@ public class MapperMethod {
 
     public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
       Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
+      this.returnsFuture = CompletableFuture.class.equals(method.getReturnType());
+      if (returnsFuture) {
+        // the future is completed with what the method would return without it
+        resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+            ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+      }
       if (resolvedReturnType instanceof Class<?>) {
         this.returnType = (Class<?>) resolvedReturnType;
       } else if (resolvedReturnType instanceof ParameterizedType) {
         this.returnType = (Class<?>) ((ParameterizedType) resolvedReturnType).getRawType();
       } else {
-        this.returnType = method.getReturnType();
+        this.returnType = returnsFuture ? Object.class : method.getReturnType();
       }
-      this.returnsVoid = void.class.equals(this.returnType);
+      this.returnsVoid = void.class.equals(this.returnType) || returnsFuture && Void.class.equals(this.returnType);
       this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
       this.returnsCursor = Cursor.class.equals(this.returnType);
+      this.returnsStream = Stream.class.equals(this.returnType);
+      this.returnsColumns = ColumnarResult.class.equals(this.returnType);
       this.returnsOptional = Optional.class.equals(this.returnType);
       this.mapKey = getMapKey(method);
       this.returnsMap = this.mapKey != null;
       this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
       this.resultHandlerIndex = getUniqueParamIndex(method, ResultHandler.class);
+      this.streamsParameters = method.getParameterCount() == 1 && Stream.class.isAssignableFrom(method.getParameterTypes()[0]);
       this.paramNameResolver = new ParamNameResolver(configuration, method);
     }
 
@@ -349,6 +386,24 @@ public class MapperMethod {
       return returnsCursor;
     }
 
+    /**
+     * return whether return type is {@code java.util.stream.Stream}.
+     * @return return {@code true}, if return type is {@code java.util.stream.Stream}
+     * @since 3.5.2
+     */
+    public boolean returnsStream() {
+      return returnsStream;
+    }
+
+    /**
+     * return whether return type is {@link ColumnarResult}.
+     * @return return {@code true}, if return type is {@link ColumnarResult}
+     * @since 3.5.2
+     */
+    public boolean returnsColumns() {
+      return returnsColumns;
+    }
+
     /**
      * return whether return type is {@code java.util.Optional}.
      * @return return {@code true}, if return type is {@code java.util.Optional}
@@ -358,6 +413,25 @@ public class MapperMethod {
       return returnsOptional;
     }
 
+    /**
+     * return whether return type is {@code java.util.concurrent.CompletableFuture}.
+     * The other methods then describe the type the future is completed with.
+     * @return return {@code true}, if return type is {@code java.util.concurrent.CompletableFuture}
+     * @since 3.5.2
+     */
+    public boolean returnsFuture() {
+      return returnsFuture;
+    }
+
+    /**
+     * return whether the only parameter is a {@code java.util.stream.Stream} holding one parameter object per row.
+     * @return return {@code true}, if the statement is executed for every element of the stream
+     * @since 3.5.2
+     */
+    public boolean streamsParameters() {
+      return streamsParameters;
+    }
+
     private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
       Integer index = null;
       final Class<?>[] argTypes = method.getParameterTypes();
@@ -34,6 +34,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.annotations.Arg;
 import org.apache.ibatis.annotations.CacheNamespace;
@@ -71,6 +73,7 @@ import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.executor.result.ColumnarResult;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.Discriminator;
 import org.apache.ibatis.mapping.FetchType;
@@ -311,6 +314,8 @@ public class MapperAnnotationBuilder {
       boolean isSelect = sqlCommandType == SqlCommandType.SELECT;
       boolean flushCache = !isSelect;
       boolean useCache = isSelect;
+      boolean coalesce = false;
+      boolean resultOrdered = false;
 
       KeyGenerator keyGenerator;
       String keyProperty = null;
@@ -339,6 +344,8 @@ public class MapperAnnotationBuilder {
           flushCache = false;
         }
         useCache = options.useCache();
+        coalesce = options.coalesce();
+        resultOrdered = options.resultOrdered();
         fetchSize = options.fetchSize() > -1 || options.fetchSize() == Integer.MIN_VALUE ? options.fetchSize() : null; //issue #348
         timeout = options.timeout() > -1 ? options.timeout() : null;
         statementType = options.statementType();
@@ -368,8 +375,7 @@ public class MapperAnnotationBuilder {
           resultSetType,
           flushCache,
           useCache,
-          // TODO gcode issue #577
-          false,
+          resultOrdered,
           keyGenerator,
           keyProperty,
           keyColumn,
@@ -377,7 +383,8 @@ public class MapperAnnotationBuilder {
           null,
           languageDriver,
           // ResultSets
-          options != null ? nullOrEmpty(options.resultSets()) : null);
+          options != null ? nullOrEmpty(options.resultSets()) : null,
+          coalesce);
     }
   }
 
@@ -403,17 +410,34 @@ public class MapperAnnotationBuilder {
         }
       }
     }
+    if (parameterTypes.length == 1 && parameterType != null && Stream.class.isAssignableFrom(parameterType)) {
+      // the statement is executed for every element of the stream
+      Type streamType = TypeParameterResolver.resolveParamTypes(method, type)[0];
+      Type elementType = streamType instanceof ParameterizedType ? ((ParameterizedType) streamType).getActualTypeArguments()[0] : null;
+      parameterType = elementType instanceof Class ? (Class<?>) elementType : Object.class;
+    }
     return parameterType;
   }
 
   private Class<?> getReturnType(Method method) {
     Class<?> returnType = method.getReturnType();
     Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, type);
+    if (CompletableFuture.class.equals(returnType)) {
+      // look at the type the future is completed with
+      resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+          ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+      returnType = resolvedReturnType instanceof ParameterizedType
+          ? (Class<?>) ((ParameterizedType) resolvedReturnType).getRawType() : Object.class;
+    }
     if (resolvedReturnType instanceof Class) {
       returnType = (Class<?>) resolvedReturnType;
       if (returnType.isArray()) {
         returnType = returnType.getComponentType();
       }
+      if (ColumnarResult.class.equals(returnType)) {
+        // rows only get mapped when the result set is not read column by column, then as maps
+        returnType = Map.class;
+      }
       // gcode issue #508
       if (void.class.equals(returnType)) {
         ResultType rt = method.getAnnotation(ResultType.class);
@@ -424,7 +448,8 @@ public class MapperAnnotationBuilder {
     } else if (resolvedReturnType instanceof ParameterizedType) {
       ParameterizedType parameterizedType = (ParameterizedType) resolvedReturnType;
       Class<?> rawType = (Class<?>) parameterizedType.getRawType();
-      if (Collection.class.isAssignableFrom(rawType) || Cursor.class.isAssignableFrom(rawType)) {
+      if (Collection.class.isAssignableFrom(rawType) || Cursor.class.isAssignableFrom(rawType)
+          || Stream.class.isAssignableFrom(rawType)) {
         Type[] actualTypeArguments = parameterizedType.getActualTypeArguments();
         if (actualTypeArguments != null && actualTypeArguments.length == 1) {
           Type returnTypeParameter = actualTypeArguments[0];
@@ -558,7 +583,9 @@ public class MapperAnnotationBuilder {
           flags,
           null,
           null,
-          isLazy(result));
+          isLazy(result),
+          batchSize(result),
+          batchKey(result));
       resultMappings.add(resultMapping);
     }
   }
@@ -584,6 +611,14 @@ public class MapperAnnotationBuilder {
     return isLazy;
   }
 
+  private int batchSize(Result result) {
+    return result.one().select().length() > 0 ? result.one().batchSize() : result.many().batchSize();
+  }
+
+  private String batchKey(Result result) {
+    return nullOrEmpty(result.one().select().length() > 0 ? result.one().batchKey() : result.many().batchKey());
+  }
+
   private boolean hasNestedSelect(Result result) {
     if (result.one().select().length() > 0 && result.many().select().length() > 0) {
       throw new BuilderException("Cannot use both @One and @Many annotations in the same @Result");
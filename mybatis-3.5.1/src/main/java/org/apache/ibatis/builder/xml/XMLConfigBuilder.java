@@ -25,6 +25,7 @@ import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
+import org.apache.ibatis.executor.statement.PaginationDialect;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
@@ -473,6 +474,21 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
     configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
     configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
+    configuration.setAdaptiveFetchSize(booleanValueOf(props.getProperty("adaptiveFetchSize"), false));
+    configuration.setMinFetchSize(integerValueOf(props.getProperty("minFetchSize"), 10));
+    configuration.setMaxFetchSize(integerValueOf(props.getProperty("maxFetchSize"), 1000));
+    configuration.setBatchFlushSize(integerValueOf(props.getProperty("batchFlushSize"), null));
+    configuration.setBatchFlushBytes(longValueOf(props.getProperty("batchFlushBytes"), null));
+    configuration.setGroupBatchStatements(booleanValueOf(props.getProperty("groupBatchStatements"), false));
+    configuration.setRewriteBatchedInserts(booleanValueOf(props.getProperty("rewriteBatchedInserts"), false));
+    configuration.setBatchInsertParameterLimit(integerValueOf(props.getProperty("batchInsertParameterLimit"), 1000));
+    configuration.setMaxReusedStatements(integerValueOf(props.getProperty("maxReusedStatements"), 256));
+    configuration.setDefaultInsertChunkSize(integerValueOf(props.getProperty("defaultInsertChunkSize"), 1000));
+    configuration.setCursorPrefetchRows(integerValueOf(props.getProperty("cursorPrefetchRows"), null));
+    configuration.setCursorPrefetchBytes(longValueOf(props.getProperty("cursorPrefetchBytes"), null));
+    configuration.setPushDownRowBounds(booleanValueOf(props.getProperty("pushDownRowBounds"), false));
+    configuration.setPaginationDialect(resolvePaginationDialect(props.getProperty("paginationDialect")));
+    configuration.setCompactMapRows(booleanValueOf(props.getProperty("compactMapRows"), false));
     //是否开启自动驼峰命名规则（camel case）映射，即从经典数据库列名 A_COLUMN 到经典 Java 属性名 aColumn 的类似映射
     configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
     configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
@@ -489,6 +505,18 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
   }
 
+  private PaginationDialect resolvePaginationDialect(String alias) {
+    if (alias == null) {
+      return null;
+    }
+    try {
+      return PaginationDialect.valueOf(alias);
+    } catch (IllegalArgumentException e) {
+      throw new BuilderException("Error resolving PaginationDialect. Cause: " + e, e);
+    }
+  }
+
+
   /**
    * 解析配置文件中environments节点配置的数据库执行环境信息
    * environments的作用是用来配置数据库信息，可以配置多个，其有两个可配的子元素，分别是：事务管理器transactionManager和数据源dataSource
@@ -0,0 +1,33 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.compression;
+
+/**
+ * Compresses and restores whole blocks of bytes.
+ * <p>
+ * Implementations must be thread safe and must have a public no-arg constructor.
+ */
+public interface CompressionCodec {
+
+  byte[] compress(byte[] data);
+
+  /**
+   * @param data bytes returned by {@link #compress(byte[])}
+   * @param originalLength length of the bytes that were compressed
+   */
+  byte[] decompress(byte[] data, int originalLength);
+
+}
@@ -0,0 +1,75 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.compression;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.ibatis.cache.CacheException;
+
+/**
+ * Codec backed by the JDK {@link Deflater}. Slower than {@link Lz4Codec} but usually smaller.
+ */
+public class DeflateCodec implements CompressionCodec {
+
+  @Override
+  public byte[] compress(byte[] data) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      byte[] buffer = new byte[data.length + 64];
+      int length = 0;
+      while (!deflater.finished()) {
+        if (length == buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        length += deflater.deflate(buffer, length, buffer.length - length);
+      }
+      return Arrays.copyOf(buffer, length);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  @Override
+  public byte[] decompress(byte[] data, int originalLength) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(data);
+      byte[] result = new byte[originalLength];
+      int length = 0;
+      while (length < originalLength && !inflater.finished()) {
+        int read = inflater.inflate(result, length, originalLength - length);
+        if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        length += read;
+      }
+      if (length != originalLength) {
+        throw new CacheException("Error decompressing cache entry. Expected " + originalLength + " bytes but got " + length);
+      }
+      return result;
+    } catch (DataFormatException e) {
+      throw new CacheException("Error decompressing cache entry.  Cause: " + e, e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+}
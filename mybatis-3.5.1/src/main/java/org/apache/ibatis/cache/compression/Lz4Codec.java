@@ -0,0 +1,169 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.compression;
+
+import java.util.Arrays;
+
+import org.apache.ibatis.cache.CacheException;
+
+/**
+ * Pure java implementation of the LZ4 block format.
+ * <p>
+ * Favors speed over ratio: a single hash probe per position and no entropy coding,
+ * which is a good fit for the highly repetitive output of java serialization.
+ */
+public class Lz4Codec implements CompressionCodec {
+
+  private static final int MIN_MATCH = 4;
+  private static final int LAST_LITERALS = 5;
+  private static final int MF_LIMIT = 12;
+  private static final int MAX_OFFSET = 0xFFFF;
+  private static final int HASH_LOG = 12;
+  private static final int RUN_MASK = 0x0F;
+
+  @Override
+  public byte[] compress(byte[] src) {
+    final int length = src.length;
+    byte[] dst = new byte[length + length / 255 + 16];
+    int dp = 0;
+    int anchor = 0;
+    if (length > MF_LIMIT) {
+      int[] table = new int[1 << HASH_LOG];
+      Arrays.fill(table, -1);
+      final int matchLimit = length - LAST_LITERALS;
+      int sp = 0;
+      while (sp < length - MF_LIMIT) {
+        int sequence = readInt(src, sp);
+        int h = hash(sequence);
+        int ref = table[h];
+        table[h] = sp;
+        if (ref >= 0 && sp - ref <= MAX_OFFSET && readInt(src, ref) == sequence) {
+          int matchLength = MIN_MATCH;
+          while (sp + matchLength < matchLimit && src[ref + matchLength] == src[sp + matchLength]) {
+            matchLength++;
+          }
+          dp = writeSequence(src, anchor, sp - anchor, sp - ref, matchLength, dst, dp);
+          sp += matchLength;
+          anchor = sp;
+        } else {
+          // skip faster through data that does not compress
+          sp += 1 + ((sp - anchor) >>> 6);
+        }
+      }
+    }
+    dp = writeLastLiterals(src, anchor, length - anchor, dst, dp);
+    return Arrays.copyOf(dst, dp);
+  }
+
+  @Override
+  public byte[] decompress(byte[] src, int originalLength) {
+    byte[] dst = new byte[originalLength];
+    int sp = 0;
+    int dp = 0;
+    try {
+      while (sp < src.length) {
+        int token = src[sp++] & 0xFF;
+        int literalLength = token >>> 4;
+        if (literalLength == RUN_MASK) {
+          int b;
+          do {
+            b = src[sp++] & 0xFF;
+            literalLength += b;
+          } while (b == 0xFF);
+        }
+        System.arraycopy(src, sp, dst, dp, literalLength);
+        sp += literalLength;
+        dp += literalLength;
+        if (sp >= src.length) {
+          break;
+        }
+        int offset = (src[sp++] & 0xFF) | (src[sp++] & 0xFF) << 8;
+        int matchLength = token & RUN_MASK;
+        if (matchLength == RUN_MASK) {
+          int b;
+          do {
+            b = src[sp++] & 0xFF;
+            matchLength += b;
+          } while (b == 0xFF);
+        }
+        matchLength += MIN_MATCH;
+        int ref = dp - offset;
+        if (offset == 0 || ref < 0) {
+          throw new CacheException("Error decompressing cache entry. Invalid match offset " + offset + " at " + sp);
+        }
+        if (offset >= matchLength) {
+          System.arraycopy(dst, ref, dst, dp, matchLength);
+        } else {
+          // overlapping match, copy byte by byte to repeat the pattern
+          for (int i = 0; i < matchLength; i++) {
+            dst[dp + i] = dst[ref + i];
+          }
+        }
+        dp += matchLength;
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new CacheException("Error decompressing cache entry.  Cause: " + e, e);
+    }
+    if (dp != originalLength) {
+      throw new CacheException("Error decompressing cache entry. Expected " + originalLength + " bytes but got " + dp);
+    }
+    return dst;
+  }
+
+  private static int writeSequence(byte[] src, int literalStart, int literalLength, int offset, int matchLength, byte[] dst, int dp) {
+    int matchCode = matchLength - MIN_MATCH;
+    int token = dp++;
+    dst[token] = (byte) (Math.min(literalLength, RUN_MASK) << 4 | Math.min(matchCode, RUN_MASK));
+    if (literalLength >= RUN_MASK) {
+      dp = writeLength(literalLength - RUN_MASK, dst, dp);
+    }
+    System.arraycopy(src, literalStart, dst, dp, literalLength);
+    dp += literalLength;
+    dst[dp++] = (byte) offset;
+    dst[dp++] = (byte) (offset >>> 8);
+    if (matchCode >= RUN_MASK) {
+      dp = writeLength(matchCode - RUN_MASK, dst, dp);
+    }
+    return dp;
+  }
+
+  private static int writeLastLiterals(byte[] src, int literalStart, int literalLength, byte[] dst, int dp) {
+    dst[dp++] = (byte) (Math.min(literalLength, RUN_MASK) << 4);
+    if (literalLength >= RUN_MASK) {
+      dp = writeLength(literalLength - RUN_MASK, dst, dp);
+    }
+    System.arraycopy(src, literalStart, dst, dp, literalLength);
+    return dp + literalLength;
+  }
+
+  private static int writeLength(int length, byte[] dst, int dp) {
+    while (length >= 0xFF) {
+      dst[dp++] = (byte) 0xFF;
+      length -= 0xFF;
+    }
+    dst[dp++] = (byte) length;
+    return dp;
+  }
+
+  private static int readInt(byte[] buf, int i) {
+    return (buf[i] & 0xFF) | (buf[i + 1] & 0xFF) << 8 | (buf[i + 2] & 0xFF) << 16 | (buf[i + 3] & 0xFF) << 24;
+  }
+
+  private static int hash(int sequence) {
+    return (sequence * -1640531535) >>> (32 - HASH_LOG);
+  }
+
+}
@@ -0,0 +1,149 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.compression.CompressionCodec;
+import org.apache.ibatis.cache.compression.Lz4Codec;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Compresses the serialized entries of a read/write cache.
+ * <p>
+ * Sits below {@link SerializedCache}. Only {@code byte[]} values of at least {@code threshold} bytes are
+ * compressed, and only when it actually makes them smaller; any other value is stored as is.
+ */
+public class CompressedCache implements Cache {
+
+  private final Log log;
+  private final Cache delegate;
+  private CompressionCodec codec;
+  private int threshold;
+  protected long uncompressedBytes = 0;
+  protected long storedBytes = 0;
+  protected int decodes = 0;
+  protected long decodeNanos = 0;
+
+  public CompressedCache(Cache delegate) {
+    this.delegate = delegate;
+    this.log = LogFactory.getLog(getId());
+    this.codec = new Lz4Codec();
+    this.threshold = 1024;
+  }
+
+  public void setCodec(CompressionCodec codec) {
+    this.codec = codec;
+  }
+
+  public void setThreshold(int threshold) {
+    this.threshold = threshold;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  @Override
+  public void putObject(Object key, Object object) {
+    if (object instanceof byte[]) {
+      byte[] bytes = (byte[]) object;
+      uncompressedBytes += bytes.length;
+      if (bytes.length >= threshold) {
+        byte[] compressed = codec.compress(bytes);
+        if (compressed.length < bytes.length) {
+          storedBytes += compressed.length;
+          delegate.putObject(key, new CompressedEntry(compressed, bytes.length));
+          return;
+        }
+      }
+      storedBytes += bytes.length;
+    }
+    delegate.putObject(key, object);
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Object value = delegate.getObject(key);
+    if (value instanceof CompressedEntry) {
+      CompressedEntry entry = (CompressedEntry) value;
+      long start = System.nanoTime();
+      value = codec.decompress(entry.data, entry.originalLength);
+      decodeNanos += System.nanoTime() - start;
+      decodes++;
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("Cache Compression Ratio [" + getId() + "]: " + getCompressionRatio()
+          + ", Average Decode Time (ms): " + getAverageDecodeMillis());
+    }
+    return value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+  /**
+   * Ratio of the serialized size to the stored size of every entry put so far.
+   */
+  public double getCompressionRatio() {
+    return storedBytes == 0 ? 1.0 : (double) uncompressedBytes / (double) storedBytes;
+  }
+
+  public double getAverageDecodeMillis() {
+    return decodes == 0 ? 0.0 : decodeNanos / 1000000.0 / decodes;
+  }
+
+  private static class CompressedEntry {
+    private final byte[] data;
+    private final int originalLength;
+
+    CompressedEntry(byte[] data, int originalLength) {
+      this.data = data;
+      this.originalLength = originalLength;
+    }
+  }
+
+}
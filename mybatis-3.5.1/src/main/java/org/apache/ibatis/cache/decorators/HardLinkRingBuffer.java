@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed size, lock free ring of hard references used by {@link SoftCache} and {@link WeakCache}
+ * to keep the most recently read values reachable.
+ * <p>
+ * Once the ring is full each new link overwrites the oldest one, so no node is allocated per hit.
+ */
+class HardLinkRingBuffer {
+
+  private final AtomicReferenceArray<Object> links;
+  private final AtomicLong cursor = new AtomicLong();
+
+  HardLinkRingBuffer(int size) {
+    this.links = new AtomicReferenceArray<>(Math.max(size, 0));
+  }
+
+  void add(Object value) {
+    int capacity = links.length();
+    if (capacity == 0) {
+      return;
+    }
+    int index = (int) ((cursor.getAndIncrement() & Long.MAX_VALUE) % capacity);
+    links.lazySet(index, value);
+  }
+
+  void clear() {
+    for (int i = 0; i < links.length(); i++) {
+      links.set(i, null);
+    }
+  }
+
+}
@@ -0,0 +1,122 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.ibatis.cache.Cache;
+
+/**
+ * Keeps empty query results apart from the regular cache entries.
+ * <p>
+ * An empty list is not handed to the delegate; only its key is kept, in a small LRU map with its own
+ * size and time to live. A hit returns a shared immutable empty list, so the namespace cache holds no empty
+ * collections and lookups of missing rows do not evict real results.
+ * <p>
+ * Like any other result, an empty result read in a transaction only reaches this cache once the transaction
+ * commits, as it may come from uncommitted changes. Until then the session's local cache serves it.
+ */
+public class NegativeResultCache implements Cache {
+
+  private final Cache delegate;
+  private Map<Object, Long> negativeKeys;
+  private long timeToLive;
+
+  public NegativeResultCache(Cache delegate) {
+    this.delegate = delegate;
+    this.timeToLive = 60 * 1000; // 1 minute
+    setSize(1024);
+  }
+
+  public void setSize(final int size) {
+    negativeKeys = new LinkedHashMap<Object, Long>(size, .75F, true) {
+      private static final long serialVersionUID = -2513262374725837937L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Long> eldest) {
+        return size() > size;
+      }
+    };
+  }
+
+  public void setTimeToLive(long timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize() + negativeKeys.size();
+  }
+
+  @Override
+  public void putObject(Object key, Object object) {
+    if (object instanceof List && ((List<?>) object).isEmpty()) {
+      negativeKeys.put(key, System.currentTimeMillis() + timeToLive);
+    } else {
+      negativeKeys.remove(key);
+      delegate.putObject(key, object);
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Long expiresAt = negativeKeys.get(key);
+    if (expiresAt != null) {
+      if (System.currentTimeMillis() < expiresAt) {
+        return Collections.emptyList();
+      }
+      negativeKeys.remove(key);
+    }
+    return delegate.getObject(key);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    negativeKeys.remove(key);
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void clear() {
+    negativeKeys.clear();
+    delegate.clear();
+  }
+
+  @Override
+  public ReadWriteLock getReadWriteLock() {
+    return null;
+  }
+
+  @Override
+  public int hashCode() {
+    return delegate.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return delegate.equals(obj);
+  }
+
+}
@@ -17,8 +17,7 @@ package org.apache.ibatis.cache.decorators;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import org.apache.ibatis.cache.Cache;
@@ -30,15 +29,14 @@ import org.apache.ibatis.cache.Cache;
  * @author Clinton Begin
  */
 public class SoftCache implements Cache {
-  private final Deque<Object> hardLinksToAvoidGarbageCollection;
+  private volatile HardLinkRingBuffer hardLinksToAvoidGarbageCollection;
   private final ReferenceQueue<Object> queueOfGarbageCollectedEntries;
   private final Cache delegate;
-  private int numberOfHardLinks;
+  private final AtomicBoolean draining = new AtomicBoolean();
 
   public SoftCache(Cache delegate) {
     this.delegate = delegate;
-    this.numberOfHardLinks = 256;
-    this.hardLinksToAvoidGarbageCollection = new LinkedList<>();
+    this.hardLinksToAvoidGarbageCollection = new HardLinkRingBuffer(256);
     this.queueOfGarbageCollectedEntries = new ReferenceQueue<>();
   }
 
@@ -55,7 +53,7 @@ public class SoftCache implements Cache {
 
 
   public void setSize(int size) {
-    this.numberOfHardLinks = size;
+    this.hardLinksToAvoidGarbageCollection = new HardLinkRingBuffer(size);
   }
 
   @Override
@@ -74,13 +72,8 @@ public class SoftCache implements Cache {
       if (result == null) {
         delegate.removeObject(key);
       } else {
-        // See #586 (and #335) modifications need more than a read lock
-        synchronized (hardLinksToAvoidGarbageCollection) {
-          hardLinksToAvoidGarbageCollection.addFirst(result);
-          if (hardLinksToAvoidGarbageCollection.size() > numberOfHardLinks) {
-            hardLinksToAvoidGarbageCollection.removeLast();
-          }
-        }
+        // See #586 (and #335) the ring buffer is safe to update under a read lock
+        hardLinksToAvoidGarbageCollection.add(result);
       }
     }
     return result;
@@ -94,9 +87,7 @@ public class SoftCache implements Cache {
 
   @Override
   public void clear() {
-    synchronized (hardLinksToAvoidGarbageCollection) {
-      hardLinksToAvoidGarbageCollection.clear();
-    }
+    hardLinksToAvoidGarbageCollection.clear();
     removeGarbageCollectedItems();
     delegate.clear();
   }
@@ -107,9 +98,17 @@ public class SoftCache implements Cache {
   }
 
   private void removeGarbageCollectedItems() {
-    SoftEntry sv;
-    while ((sv = (SoftEntry) queueOfGarbageCollectedEntries.poll()) != null) {
-      delegate.removeObject(sv.key);
+    // only one thread drains the queue at a time, the others go on with their work
+    if (!draining.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      SoftEntry sv;
+      while ((sv = (SoftEntry) queueOfGarbageCollectedEntries.poll()) != null) {
+        delegate.removeObject(sv.key);
+      }
+    } finally {
+      draining.set(false);
     }
   }
 
@@ -17,8 +17,7 @@ package org.apache.ibatis.cache.decorators;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import org.apache.ibatis.cache.Cache;
@@ -30,15 +29,14 @@ import org.apache.ibatis.cache.Cache;
  * @author Clinton Begin
  */
 public class WeakCache implements Cache {
-  private final Deque<Object> hardLinksToAvoidGarbageCollection;
+  private volatile HardLinkRingBuffer hardLinksToAvoidGarbageCollection;
   private final ReferenceQueue<Object> queueOfGarbageCollectedEntries;
   private final Cache delegate;
-  private int numberOfHardLinks;
+  private final AtomicBoolean draining = new AtomicBoolean();
 
   public WeakCache(Cache delegate) {
     this.delegate = delegate;
-    this.numberOfHardLinks = 256;
-    this.hardLinksToAvoidGarbageCollection = new LinkedList<>();
+    this.hardLinksToAvoidGarbageCollection = new HardLinkRingBuffer(256);
     this.queueOfGarbageCollectedEntries = new ReferenceQueue<>();
   }
 
@@ -54,7 +52,7 @@ public class WeakCache implements Cache {
   }
 
   public void setSize(int size) {
-    this.numberOfHardLinks = size;
+    this.hardLinksToAvoidGarbageCollection = new HardLinkRingBuffer(size);
   }
 
   @Override
@@ -73,10 +71,7 @@ public class WeakCache implements Cache {
       if (result == null) {
         delegate.removeObject(key);
       } else {
-        hardLinksToAvoidGarbageCollection.addFirst(result);
-        if (hardLinksToAvoidGarbageCollection.size() > numberOfHardLinks) {
-          hardLinksToAvoidGarbageCollection.removeLast();
-        }
+        hardLinksToAvoidGarbageCollection.add(result);
       }
     }
     return result;
@@ -101,9 +96,17 @@ public class WeakCache implements Cache {
   }
 
   private void removeGarbageCollectedItems() {
-    WeakEntry sv;
-    while ((sv = (WeakEntry) queueOfGarbageCollectedEntries.poll()) != null) {
-      delegate.removeObject(sv.key);
+    // only one thread drains the queue at a time, the others go on with their work
+    if (!draining.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      WeakEntry sv;
+      while ((sv = (WeakEntry) queueOfGarbageCollectedEntries.poll()) != null) {
+        delegate.removeObject(sv.key);
+      }
+    } finally {
+      draining.set(false);
     }
   }
 
@@ -16,6 +16,10 @@
 package org.apache.ibatis.cursor;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Cursor contract to handle fetching items lazily using an Iterator.
@@ -43,4 +47,20 @@ public interface Cursor<T> extends Closeable, Iterable<T> {
    * @return -1 if the first cursor item has not been retrieved. The index of the current item retrieved.
    */
   int getCurrentIndex();
+
+  /**
+   * Returns a sequential stream over the items of this cursor. Items are fetched as the stream pulls them, and
+   * closing the stream closes the cursor.
+   * @return a stream of the cursor items
+   * @since 3.5.2
+   */
+  default Stream<T> stream() {
+    return StreamSupport.stream(new CursorSpliterator<>(this), false).onClose(() -> {
+      try {
+        close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
 }
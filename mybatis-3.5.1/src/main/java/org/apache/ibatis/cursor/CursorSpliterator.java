@@ -0,0 +1,63 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator fetching one row of a cursor per advance, so a stream reads no more rows than its consumers
+ * ask for. It does not split, as the rows can only be read in order.
+ */
+class CursorSpliterator<T> implements Spliterator<T> {
+
+  private final Cursor<T> cursor;
+  private Iterator<T> iterator;
+
+  CursorSpliterator(Cursor<T> cursor) {
+    this.cursor = cursor;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    if (iterator == null) {
+      iterator = cursor.iterator();
+    }
+    if (!iterator.hasNext()) {
+      return false;
+    }
+    action.accept(iterator.next());
+    return true;
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    return null;
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    // not NONNULL, a row whose columns are all null maps to null unless returnInstanceForEmptyRow is set
+    return ORDERED;
+  }
+
+}
@@ -117,6 +117,9 @@ public class DefaultCursor<T> implements Cursor<T> {
     } catch (SQLException e) {
       // ignore
     } finally {
+      if (status == CursorStatus.OPEN) {
+        resultSetHandler.recordRowCount();
+      }
       status = CursorStatus.CLOSED;
     }
   }
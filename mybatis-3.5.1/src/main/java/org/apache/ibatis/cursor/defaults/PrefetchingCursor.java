@@ -0,0 +1,256 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.ObjectSizeEstimator;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A cursor reading and mapping the rows of another cursor on a separate thread, ahead of the consumer.
+ * At most {@code cursorPrefetchRows} rows, or rows estimated to take {@code cursorPrefetchBytes} bytes, are held
+ * at any time; the producer waits for the consumer to catch up beyond that.
+ * <p>
+ * The rows are mapped on the producer thread, so the session must not be used by the consumer until the cursor is
+ * consumed or closed. A failure of the producer is thrown to the consumer after the rows read before it.
+ */
+public class PrefetchingCursor<T> implements Cursor<T> {
+
+  private final Cursor<T> delegate;
+  private final Configuration configuration;
+  private final int maxRows;
+  private final Long maxBytes;
+  private final int startIndex;
+
+  private final Object lock = new Object();
+  private final Deque<Prefetched<T>> buffer = new ArrayDeque<>();
+  private long bufferedBytes;
+  private boolean started;
+  private boolean closed;
+  private boolean done;
+  private Throwable failure;
+
+  private final PrefetchingIterator iterator = new PrefetchingIterator();
+  private boolean iteratorRetrieved;
+  private int returned;
+
+  public PrefetchingCursor(Cursor<T> delegate, Configuration configuration) {
+    this.delegate = delegate;
+    this.configuration = configuration;
+    Integer rows = configuration.getCursorPrefetchRows();
+    this.maxRows = rows == null ? Integer.MAX_VALUE : Math.max(rows, 1);
+    this.maxBytes = configuration.getCursorPrefetchBytes();
+    this.startIndex = delegate.getCurrentIndex();
+  }
+
+  @Override
+  public boolean isOpen() {
+    synchronized (lock) {
+      return started && !closed && !isConsumed();
+    }
+  }
+
+  @Override
+  public boolean isConsumed() {
+    synchronized (lock) {
+      return done && failure == null && buffer.isEmpty() && iterator.reachedEnd;
+    }
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return startIndex + returned;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("A Cursor is already closed.");
+      }
+      started = true;
+    }
+    iteratorRetrieved = true;
+    java.util.concurrent.Executor executor = configuration.getAsyncExecutor();
+    if (executor == null) {
+      Thread producer = new Thread(this::produce, "mybatis-cursor-prefetch");
+      producer.setDaemon(true);
+      producer.start();
+    } else {
+      executor.execute(this::produce);
+    }
+    return iterator;
+  }
+
+  @Override
+  public void close() {
+    boolean wait;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      buffer.clear();
+      bufferedBytes = 0;
+      lock.notifyAll();
+      wait = started;
+    }
+    if (!wait) {
+      closeDelegate();
+      return;
+    }
+    // the producer closes the delegate once it sees the cursor closed
+    synchronized (lock) {
+      boolean interrupted = false;
+      while (!done) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void produce() {
+    try {
+      Iterator<T> rows = delegate.iterator();
+      while (!isClosing() && rows.hasNext()) {
+        T row = rows.next();
+        long size = maxBytes == null ? 0 : ObjectSizeEstimator.estimateSize(configuration, row);
+        synchronized (lock) {
+          while (!closed && isFull()) {
+            lock.wait();
+          }
+          if (closed) {
+            return;
+          }
+          buffer.add(new Prefetched<>(row, size));
+          bufferedBytes += size;
+          lock.notifyAll();
+        }
+      }
+    } catch (Throwable t) {
+      synchronized (lock) {
+        failure = t;
+      }
+    } finally {
+      closeDelegate();
+      synchronized (lock) {
+        done = true;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private boolean isClosing() {
+    synchronized (lock) {
+      return closed;
+    }
+  }
+
+  private boolean isFull() {
+    return buffer.size() >= maxRows || maxBytes != null && bufferedBytes >= maxBytes && !buffer.isEmpty();
+  }
+
+  private void closeDelegate() {
+    try {
+      delegate.close();
+    } catch (Exception e) {
+      // ignore
+    }
+  }
+
+  private class PrefetchingIterator implements Iterator<T> {
+
+    private boolean reachedEnd;
+
+    @Override
+    public boolean hasNext() {
+      synchronized (lock) {
+        boolean interrupted = false;
+        try {
+          while (buffer.isEmpty() && !done && !closed) {
+            try {
+              lock.wait();
+            } catch (InterruptedException e) {
+              interrupted = true;
+            }
+          }
+        } finally {
+          if (interrupted) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        if (!buffer.isEmpty()) {
+          return true;
+        }
+        if (failure != null && !closed) {
+          Throwable cause = failure;
+          failure = null;
+          throw new PersistenceException("Error fetching the next row of a cursor.  Cause: " + cause, cause);
+        }
+        reachedEnd = true;
+        return false;
+      }
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Prefetched<T> prefetched;
+      synchronized (lock) {
+        prefetched = buffer.poll();
+        if (prefetched == null) {
+          throw new NoSuchElementException();
+        }
+        bufferedBytes -= prefetched.size;
+        lock.notifyAll();
+      }
+      returned++;
+      return prefetched.row;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+  }
+
+  private static class Prefetched<T> {
+    private final T row;
+    private final long size;
+
+    Prefetched(T row, long size) {
+      this.row = row;
+      this.size = size;
+    }
+  }
+}
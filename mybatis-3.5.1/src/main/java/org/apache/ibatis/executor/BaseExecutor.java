@@ -20,6 +20,7 @@ import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOL
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -38,6 +39,7 @@ import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetRowBounds;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -61,6 +63,7 @@ public abstract class BaseExecutor implements Executor {
 
   protected int queryStack;
   private boolean closed;
+  private boolean dirty;
 
   protected BaseExecutor(Configuration configuration, Transaction transaction) {
     this.transaction = transaction;
@@ -114,9 +117,27 @@ public abstract class BaseExecutor implements Executor {
       throw new ExecutorException("Executor was closed.");
     }
     clearLocalCache();
+    dirty = true;
     return doUpdate(ms, parameter);
   }
 
+  @Override
+  public int updateAll(MappedStatement ms, Iterator<?> parameters, int chunkSize) throws SQLException {
+    ErrorContext.instance().resource(ms.getResource()).activity("executing a bulk update").object(ms.getId());
+    if (closed) {
+      throw new ExecutorException("Executor was closed.");
+    }
+    if (chunkSize <= 0) {
+      throw new ExecutorException("The chunk size must be greater than zero but was " + chunkSize + ".");
+    }
+    clearLocalCache();
+    dirty = true;
+    // statements batched earlier run first
+    flushStatements();
+    Connection connection = getConnection(ms.getStatementLog());
+    return new ChunkedBatch(wrapper, ms, connection, transaction.getTimeout(), chunkSize).execute(parameters);
+  }
+
   @Override
   public List<BatchResult> flushStatements() throws SQLException {
     return flushStatements(false);
@@ -200,6 +221,12 @@ public abstract class BaseExecutor implements Executor {
     cacheKey.update(ms.getId());
     cacheKey.update(rowBounds.getOffset());
     cacheKey.update(rowBounds.getLimit());
+    if (rowBounds instanceof KeysetRowBounds) {
+      KeysetRowBounds keysetRowBounds = (KeysetRowBounds) rowBounds;
+      cacheKey.update(keysetRowBounds.getKeyColumn());
+      cacheKey.update(keysetRowBounds.getLastKey());
+      cacheKey.update(keysetRowBounds.isDescending());
+    }
     cacheKey.update(boundSql.getSql());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
@@ -243,6 +270,7 @@ public abstract class BaseExecutor implements Executor {
     if (required) {
       transaction.commit();
     }
+    dirty = false;
   }
 
   @Override
@@ -255,6 +283,7 @@ public abstract class BaseExecutor implements Executor {
         if (required) {
           transaction.rollback();
         }
+        dirty = false;
       }
     }
   }
@@ -321,7 +350,11 @@ public abstract class BaseExecutor implements Executor {
     List<E> list;
     localCache.putObject(key, EXECUTION_PLACEHOLDER);
     try {
-      list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+      if (isCoalescing(ms, resultHandler)) {
+        list = configuration.getQueryCoalescer().execute(key, () -> doQuery(ms, parameter, rowBounds, null, boundSql));
+      } else {
+        list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+      }
     } finally {
       localCache.removeObject(key);
     }
@@ -332,6 +365,13 @@ public abstract class BaseExecutor implements Executor {
     return list;
   }
 
+  private boolean isCoalescing(MappedStatement ms, ResultHandler resultHandler) {
+    // only top level queries, nested selects waiting on other sessions could deadlock;
+    // a session with uncommitted writes must neither share nor see results of another transaction
+    return ms.isCoalesce() && resultHandler == null && queryStack == 1 && !dirty
+        && ms.getStatementType() != StatementType.CALLABLE;
+  }
+
   protected Connection getConnection(Log statementLog) throws SQLException {
     Connection connection = transaction.getConnection();
     if (statementLog.isDebugEnabled()) {
@@ -17,11 +17,15 @@ package org.apache.ibatis.executor;
 
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
@@ -44,8 +48,13 @@ public class BatchExecutor extends BaseExecutor {
 
   private final List<Statement> statementList = new ArrayList<>();
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  private final List<BatchResult> flushedResultList = new ArrayList<>();
+  private final Map<MappedStatement, Map<String, Integer>> openStatements = new HashMap<>();
   private String currentSql;
   private MappedStatement currentStatement;
+  private int pendingCount;
+  private long pendingBytes;
+  private MultiRowInsert pendingInsert;
 
   public BatchExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
@@ -57,27 +66,111 @@ public class BatchExecutor extends BaseExecutor {
     final StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, null);
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
+    if (configuration.isRewriteBatchedInserts() && bufferInsert(ms, boundSql, parameterObject)) {
+      autoFlushIfRequired(parameterObject);
+      return BATCH_UPDATE_RETURN_VALUE;
+    }
+    addPendingInsertToBatch();
     final Statement stmt;
-    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-      int last = statementList.size() - 1;
-      stmt = statementList.get(last);
+    final int index = indexOfOpenStatement(ms, sql);
+    if (index >= 0) {
+      stmt = statementList.get(index);
       applyTransactionTimeout(stmt);
       handler.parameterize(stmt);//fix Issues 322
-      BatchResult batchResult = batchResultList.get(last);
+      BatchResult batchResult = batchResultList.get(index);
       batchResult.addParameterObject(parameterObject);
     } else {
       Connection connection = getConnection(ms.getStatementLog());
       stmt = handler.prepare(connection, transaction.getTimeout());
       handler.parameterize(stmt);    //fix Issues 322
-      currentSql = sql;
-      currentStatement = ms;
-      statementList.add(stmt);
-      batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      addStatement(ms, sql, stmt, new BatchResult(ms, sql, parameterObject));
     }
     handler.batch(stmt);
+    autoFlushIfRequired(parameterObject);
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  private void addStatement(MappedStatement ms, String sql, Statement stmt, BatchResult batchResult) {
+    currentSql = sql;
+    currentStatement = ms;
+    if (configuration.isGroupBatchStatements()) {
+      openStatements.computeIfAbsent(ms, k -> new HashMap<>()).put(sql, statementList.size());
+    }
+    statementList.add(stmt);
+    batchResultList.add(batchResult);
+  }
+
+  /**
+   * Adds the row to the pending multi-row insert, returning false if the statement cannot be rewritten.
+   */
+  private boolean bufferInsert(MappedStatement ms, BoundSql boundSql, Object parameterObject) throws SQLException {
+    if (pendingInsert == null || !pendingInsert.accepts(ms, boundSql.getSql())) {
+      MultiRowInsert insert = MultiRowInsert.of(ms, boundSql, configuration.getBatchInsertParameterLimit());
+      if (insert == null) {
+        return false;
+      }
+      addPendingInsertToBatch();
+      pendingInsert = insert;
+    }
+    pendingInsert.add(boundSql, parameterObject);
+    if (pendingInsert.isFull()) {
+      addPendingInsertToBatch();
+    }
+    return true;
+  }
+
+  /**
+   * Binds the rows of the pending multi-row insert and adds them to the batch as one statement. Full chunks
+   * share the same SQL, so they end up in the same JDBC batch.
+   */
+  private void addPendingInsertToBatch() throws SQLException {
+    if (pendingInsert == null) {
+      return;
+    }
+    final MultiRowInsert insert = pendingInsert;
+    pendingInsert = null;
+    final MappedStatement ms = insert.getMappedStatement();
+    final String sql = insert.getSql();
+    final Statement stmt;
+    final BatchResult batchResult;
+    final int index = indexOfOpenStatement(ms, sql);
+    if (index >= 0) {
+      stmt = statementList.get(index);
+      applyTransactionTimeout(stmt);
+      batchResult = batchResultList.get(index);
+    } else {
+      BoundSql boundSql = new BoundSql(configuration, sql, Collections.emptyList(), insert.getParameterObjects());
+      StatementHandler handler = configuration.newStatementHandler(this, ms, insert.getParameterObjects(), RowBounds.DEFAULT, null, boundSql);
+      Connection connection = getConnection(ms.getStatementLog());
+      stmt = handler.prepare(connection, transaction.getTimeout());
+      batchResult = new BatchResult(ms, sql);
+      addStatement(ms, sql, stmt, batchResult);
+    }
+    final PreparedStatement ps = (PreparedStatement) stmt;
+    insert.parameterize(ps);
+    ps.addBatch();
+    batchResult.getParameterObjects().addAll(insert.getParameterObjects());
+  }
+
+  /**
+   * Returns the index of the open batch that accepts the given statement, or -1 if a new one is needed.
+   * Unless statements are grouped, only the last batch can be extended, so that statements run in the order
+   * they were issued.
+   */
+  private int indexOfOpenStatement(MappedStatement ms, String sql) {
+    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
+      return statementList.size() - 1;
+    }
+    if (configuration.isGroupBatchStatements()) {
+      Map<String, Integer> indexes = openStatements.get(ms);
+      Integer index = indexes == null ? null : indexes.get(sql);
+      if (index != null) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
       throws SQLException {
@@ -110,18 +203,38 @@ public class BatchExecutor extends BaseExecutor {
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
     try {
-      List<BatchResult> results = new ArrayList<>();
       if (isRollback) {
+        closeStatements();
         return Collections.emptyList();
       }
+      if (flushedResultList.isEmpty()) {
+        return executeBatches();
+      }
+      List<BatchResult> results = new ArrayList<>(flushedResultList);
+      results.addAll(executeBatches());
+      return results;
+    } finally {
+      flushedResultList.clear();
+    }
+  }
+
+  private List<BatchResult> executeBatches() throws SQLException {
+    try {
+      addPendingInsertToBatch();
+      List<BatchResult> results = new ArrayList<>();
       for (int i = 0, n = statementList.size(); i < n; i++) {
         Statement stmt = statementList.get(i);
         applyTransactionTimeout(stmt);
         BatchResult batchResult = batchResultList.get(i);
         try {
-          batchResult.setUpdateCounts(stmt.executeBatch());
+          int[] updateCounts = stmt.executeBatch();
           MappedStatement ms = batchResult.getMappedStatement();
           List<Object> parameterObjects = batchResult.getParameterObjects();
+          if (updateCounts.length > 0 && parameterObjects.size() > updateCounts.length) {
+            // rewritten multi-row inserts
+            updateCounts = updateCountsPerRow(updateCounts, parameterObjects.size() / updateCounts.length);
+          }
+          batchResult.setUpdateCounts(updateCounts);
           KeyGenerator keyGenerator = ms.getKeyGenerator();
           if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
             Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
@@ -145,18 +258,59 @@ public class BatchExecutor extends BaseExecutor {
                 .append(i)
                 .append(" prior sub executor(s) completed successfully, but will be rolled back.");
           }
-          throw new BatchExecutorException(message.toString(), e, results, batchResult);
+          List<BatchResult> successfulBatchResults = new ArrayList<>(flushedResultList);
+          successfulBatchResults.addAll(results);
+          throw new BatchExecutorException(message.toString(), e, successfulBatchResults, batchResult);
         }
         results.add(batchResult);
       }
       return results;
     } finally {
-      for (Statement stmt : statementList) {
-        closeStatement(stmt);
+      closeStatements();
+    }
+  }
+
+  private void closeStatements() {
+    for (Statement stmt : statementList) {
+      closeStatement(stmt);
+    }
+    currentSql = null;
+    pendingInsert = null;
+    statementList.clear();
+    batchResultList.clear();
+    openStatements.clear();
+    pendingCount = 0;
+    pendingBytes = 0;
+  }
+
+  /**
+   * Spreads the update count of each multi-row insert over its rows, so there is still one count per parameter object.
+   */
+  private static int[] updateCountsPerRow(int[] updateCounts, int rows) {
+    int[] perRow = new int[updateCounts.length * rows];
+    for (int i = 0; i < updateCounts.length; i++) {
+      Arrays.fill(perRow, i * rows, (i + 1) * rows, updateCounts[i] == rows ? 1 : Statement.SUCCESS_NO_INFO);
+    }
+    return perRow;
+  }
+
+  private void autoFlushIfRequired(Object parameterObject) throws SQLException {
+    Integer flushSize = configuration.getBatchFlushSize();
+    Long flushBytes = configuration.getBatchFlushBytes();
+    if (flushSize == null && flushBytes == null) {
+      return;
+    }
+    pendingCount++;
+    if (flushBytes != null) {
+      pendingBytes += ObjectSizeEstimator.estimateSize(configuration, parameterObject);
+    }
+    if (flushSize != null && pendingCount >= flushSize || flushBytes != null && pendingBytes >= flushBytes) {
+      for (BatchResult batchResult : executeBatches()) {
+        // keep the update counts only, so the parameter objects can be garbage collected
+        BatchResult released = new BatchResult(batchResult.getMappedStatement(), batchResult.getSql());
+        released.setUpdateCounts(batchResult.getUpdateCounts());
+        flushedResultList.add(released);
       }
-      currentSql = null;
-      statementList.clear();
-      batchResultList.clear();
     }
   }
 
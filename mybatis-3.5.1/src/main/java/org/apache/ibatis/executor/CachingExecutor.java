@@ -16,6 +16,7 @@
 package org.apache.ibatis.executor;
 
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.ibatis.cache.Cache;
@@ -76,6 +77,12 @@ public class CachingExecutor implements Executor {
     return delegate.update(ms, parameterObject);
   }
 
+  @Override
+  public int updateAll(MappedStatement ms, Iterator<?> parameters, int chunkSize) throws SQLException {
+    flushCacheIfRequired(ms);
+    return delegate.updateAll(ms, parameters, chunkSize);
+  }
+
   @Override
   public <E> List<E> query(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler) throws SQLException {
     BoundSql boundSql = ms.getBoundSql(parameterObject);
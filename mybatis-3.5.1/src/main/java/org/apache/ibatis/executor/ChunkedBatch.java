@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Runs a statement once for every parameter of an iterator, as a series of JDBC batches of at most
+ * {@code chunkSize} rows. A chunk is executed as soon as it is full, so no more than one chunk is held at any time.
+ * <p>
+ * Everything runs on the calling thread, as JDBC connections are not required to be thread safe.
+ */
+class ChunkedBatch {
+
+  private final Configuration configuration;
+  private final Executor executor;
+  private final MappedStatement ms;
+  private final Connection connection;
+  private final Integer transactionTimeout;
+  private final int chunkSize;
+
+  private int updateCount;
+
+  ChunkedBatch(Executor executor, MappedStatement ms, Connection connection, Integer transactionTimeout, int chunkSize) {
+    this.configuration = ms.getConfiguration();
+    this.executor = executor;
+    this.ms = ms;
+    this.connection = connection;
+    this.transactionTimeout = transactionTimeout;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Returns the number of rows reported by the driver. Statements answering {@link Statement#SUCCESS_NO_INFO}
+   * are not counted.
+   */
+  int execute(Iterator<?> parameters) throws SQLException {
+    Chunk chunk = null;
+    try {
+      while (parameters.hasNext()) {
+        Object parameter = parameters.next();
+        StatementHandler handler = configuration.newStatementHandler(executor, ms, parameter, RowBounds.DEFAULT, null, null);
+        String sql = handler.getBoundSql().getSql();
+        if (chunk != null && (chunk.parameters.size() >= chunkSize || !chunk.sql.equals(sql))) {
+          Chunk full = chunk;
+          chunk = null;
+          addUpdateCounts(full.execute());
+        }
+        if (chunk == null) {
+          chunk = new Chunk(sql, handler.prepare(connection, transactionTimeout));
+        }
+        handler.parameterize(chunk.statement);
+        handler.batch(chunk.statement);
+        chunk.parameters.add(parameter);
+      }
+      if (chunk != null) {
+        Chunk last = chunk;
+        chunk = null;
+        addUpdateCounts(last.execute());
+      }
+      return updateCount;
+    } finally {
+      if (chunk != null) {
+        closeStatement(chunk.statement);
+      }
+    }
+  }
+
+  private void addUpdateCounts(int[] updateCounts) {
+    for (int count : updateCounts) {
+      if (count > 0) {
+        updateCount += count;
+      }
+    }
+  }
+
+  private static void closeStatement(Statement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  private class Chunk {
+    private final String sql;
+    private final Statement statement;
+    private final List<Object> parameters = new ArrayList<>();
+
+    Chunk(String sql, Statement statement) {
+      this.sql = sql;
+      this.statement = statement;
+    }
+
+    int[] execute() throws SQLException {
+      try {
+        int[] updateCounts = statement.executeBatch();
+        KeyGenerator keyGenerator = ms.getKeyGenerator();
+        if (keyGenerator instanceof Jdbc3KeyGenerator) {
+          ((Jdbc3KeyGenerator) keyGenerator).processBatch(ms, statement, parameters);
+        } else if (!(keyGenerator instanceof NoKeyGenerator)) {
+          for (Object parameter : parameters) {
+            keyGenerator.processAfter(executor, ms, statement, parameter);
+          }
+        }
+        return updateCounts;
+      } finally {
+        closeStatement(statement);
+      }
+    }
+  }
+
+}
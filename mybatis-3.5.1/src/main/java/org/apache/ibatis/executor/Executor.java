@@ -16,6 +16,7 @@
 package org.apache.ibatis.executor;
 
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.ibatis.cache.CacheKey;
@@ -36,6 +37,32 @@ public interface Executor {
 
   int update(MappedStatement ms, Object parameter) throws SQLException;
 
+  /**
+   * Executes a statement once for every parameter, sending the rows in JDBC batches of {@code chunkSize}.
+   * The default implementation calls {@link #update(MappedStatement, Object)} for every parameter and
+   * {@link #flushStatements()} after every chunk.
+   *
+   * @since 3.5.2
+   */
+  default int updateAll(MappedStatement ms, Iterator<?> parameters, int chunkSize) throws SQLException {
+    if (chunkSize <= 0) {
+      throw new ExecutorException("The chunk size must be greater than zero but was " + chunkSize + ".");
+    }
+    int updateCount = 0;
+    while (parameters.hasNext()) {
+      for (int i = 0; i < chunkSize && parameters.hasNext(); i++) {
+        // batching executors answer a negative placeholder, their counts come with the flush
+        updateCount += Math.max(update(ms, parameters.next()), 0);
+      }
+      for (BatchResult batchResult : flushStatements()) {
+        for (int count : batchResult.getUpdateCounts()) {
+          updateCount += Math.max(count, 0);
+        }
+      }
+    }
+    return updateCount;
+  }
+
   <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, CacheKey cacheKey, BoundSql boundSql) throws SQLException;
 
   <E> List<E> query(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler) throws SQLException;
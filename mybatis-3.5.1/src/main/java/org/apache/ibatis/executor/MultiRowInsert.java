@@ -0,0 +1,252 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * A run of identical single-row {@code INSERT ... VALUES (...)} statements that the {@link BatchExecutor}
+ * sends as one multi-row {@code INSERT ... VALUES (...), (...)} statement.
+ * <p>
+ * Each row is bound by its own {@link org.apache.ibatis.executor.parameter.ParameterHandler}, shifted to the
+ * placeholders of its tuple, so type handlers and plugins see the same calls as for a single-row insert.
+ */
+class MultiRowInsert {
+
+  private final MappedStatement mappedStatement;
+  private final String sql;
+  private final String head;
+  private final String row;
+  private final int parametersPerRow;
+  private final int maxRows;
+  private final List<BoundSql> boundSqls = new ArrayList<>();
+  private final List<Object> parameterObjects = new ArrayList<>();
+
+  private MultiRowInsert(MappedStatement mappedStatement, String sql, int rowStart, int rowEnd, int parametersPerRow,
+      int parameterLimit) {
+    this.mappedStatement = mappedStatement;
+    this.sql = sql;
+    this.head = sql.substring(0, rowStart);
+    this.row = sql.substring(rowStart, rowEnd);
+    this.parametersPerRow = parametersPerRow;
+    this.maxRows = parametersPerRow == 0 ? Math.max(parameterLimit, 1) : Math.max(parameterLimit / parametersPerRow, 1);
+  }
+
+  /**
+   * Returns a new, empty run for the statement, or null if it cannot be rewritten.
+   */
+  static MultiRowInsert of(MappedStatement ms, BoundSql boundSql, int parameterLimit) {
+    if (ms.getSqlCommandType() != SqlCommandType.INSERT || ms.getStatementType() != StatementType.PREPARED) {
+      return null;
+    }
+    KeyGenerator keyGenerator = ms.getKeyGenerator();
+    if (!(keyGenerator instanceof NoKeyGenerator) && !(keyGenerator instanceof Jdbc3KeyGenerator)) {
+      // a selectKey has to run once per row
+      return null;
+    }
+    String sql = boundSql.getSql();
+    int rowStart = indexOfValues(sql);
+    if (rowStart < 0) {
+      return null;
+    }
+    int rowEnd = endOfRow(sql, rowStart);
+    if (rowEnd < 0) {
+      return null;
+    }
+    int parameters = countPlaceholders(sql, rowStart, rowEnd);
+    if (parameters != boundSql.getParameterMappings().size()) {
+      // placeholders outside of the values row
+      return null;
+    }
+    return new MultiRowInsert(ms, sql, rowStart, rowEnd, parameters, parameterLimit);
+  }
+
+  boolean accepts(MappedStatement ms, String sql) {
+    return this.sql.equals(sql) && mappedStatement.equals(ms);
+  }
+
+  void add(BoundSql boundSql, Object parameterObject) {
+    boundSqls.add(boundSql);
+    parameterObjects.add(parameterObject);
+  }
+
+  boolean isFull() {
+    return parameterObjects.size() >= maxRows;
+  }
+
+  MappedStatement getMappedStatement() {
+    return mappedStatement;
+  }
+
+  List<Object> getParameterObjects() {
+    return parameterObjects;
+  }
+
+  String getSql() {
+    int rows = parameterObjects.size();
+    if (rows == 1) {
+      return sql;
+    }
+    StringBuilder builder = new StringBuilder(head.length() + rows * (row.length() + 2));
+    builder.append(head).append(row);
+    for (int i = 1; i < rows; i++) {
+      builder.append(", ").append(row);
+    }
+    return builder.toString();
+  }
+
+  void parameterize(PreparedStatement ps) throws SQLException {
+    ShiftedParameters shifted = new ShiftedParameters(ps);
+    PreparedStatement target = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+        new Class<?>[] { PreparedStatement.class }, shifted);
+    for (int i = 0; i < parameterObjects.size(); i++) {
+      shifted.offset = i * parametersPerRow;
+      mappedStatement.getConfiguration()
+          .newParameterHandler(mappedStatement, parameterObjects.get(i), boundSqls.get(i))
+          .setParameters(target);
+    }
+  }
+
+  /**
+   * Returns the index of the opening parenthesis of the row following a top level VALUES keyword.
+   */
+  private static int indexOfValues(String sql) {
+    int start = 0;
+    while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+      start++;
+    }
+    if (!sql.regionMatches(true, start, "insert", 0, 6)) {
+      return -1;
+    }
+    char quote = 0;
+    int depth = 0;
+    for (int i = start; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (c == '?' && depth == 0) {
+        return -1;
+      } else if (depth == 0 && isKeyword(sql, i, "values")) {
+        int j = i + 6;
+        while (j < sql.length() && Character.isWhitespace(sql.charAt(j))) {
+          j++;
+        }
+        return j < sql.length() && sql.charAt(j) == '(' ? j : -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index just past the closing parenthesis of the row, or -1 if anything but whitespace follows it.
+   */
+  private static int endOfRow(String sql, int rowStart) {
+    char quote = 0;
+    int depth = 0;
+    for (int i = rowStart; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        for (int j = i + 1; j < sql.length(); j++) {
+          if (!Character.isWhitespace(sql.charAt(j))) {
+            return -1;
+          }
+        }
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  private static int countPlaceholders(String sql, int start, int end) {
+    char quote = 0;
+    int count = 0;
+    for (int i = start; i < end; i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+      } else if (c == '?') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static boolean isKeyword(String sql, int index, String keyword) {
+    int end = index + keyword.length();
+    return sql.regionMatches(true, index, keyword, 0, keyword.length())
+        && (index == 0 || !Character.isJavaIdentifierPart(sql.charAt(index - 1)))
+        && (end == sql.length() || !Character.isJavaIdentifierPart(sql.charAt(end)));
+  }
+
+  private static class ShiftedParameters implements InvocationHandler {
+
+    private final PreparedStatement statement;
+    private int offset;
+
+    ShiftedParameters(PreparedStatement statement) {
+      this.statement = statement;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (offset != 0 && args != null && args.length > 1 && method.getName().startsWith("set")
+          && method.getParameterTypes()[0] == int.class) {
+        args[0] = (Integer) args[0] + offset;
+      }
+      try {
+        return method.invoke(statement, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Estimates the memory held by parameter objects and result rows, to bound how much of them is buffered.
+ * Strings and byte arrays count by their length, other values at a flat cost.
+ *
+ * @since 3.5.2
+ */
+public final class ObjectSizeEstimator {
+
+  private ObjectSizeEstimator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Estimates the size of an object, looking at the values of a map, collection or bean and, for a map or
+   * collection, at the properties of the beans it holds.
+   *
+   * @param configuration
+   * @param object
+   * @return the estimated size in bytes
+   */
+  public static long estimateSize(Configuration configuration, Object object) {
+    return estimateSize(configuration, object, true);
+  }
+
+  private static long estimateSize(Configuration configuration, Object object, boolean nested) {
+    if (object == null || configuration.getTypeHandlerRegistry().hasTypeHandler(object.getClass())) {
+      return estimateValueSize(object);
+    }
+    long size = 16;
+    Collection<?> values = null;
+    if (object instanceof Map) {
+      values = ((Map<?, ?>) object).values();
+    } else if (object instanceof Collection) {
+      values = (Collection<?>) object;
+    } else if (object instanceof Object[]) {
+      values = Arrays.asList((Object[]) object);
+    }
+    if (values != null) {
+      // parameter maps hold the same object under several names
+      Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (Object value : values) {
+        if (value != null && seen.add(value)) {
+          size += nested ? estimateSize(configuration, value, false) : estimateValueSize(value);
+        }
+      }
+      return size;
+    }
+    MetaObject metaObject = configuration.newMetaObject(object);
+    for (String name : metaObject.getGetterNames()) {
+      // reading a lazy loaded property would trigger its query
+      size += configuration.isLazyLoadingEnabled() ? 16 : estimateValueSize(metaObject.getValue(name));
+    }
+    return size;
+  }
+
+  private static long estimateValueSize(Object value) {
+    if (value instanceof CharSequence) {
+      return 40 + 2L * ((CharSequence) value).length();
+    } else if (value instanceof byte[]) {
+      return 16 + ((byte[]) value).length;
+    } else {
+      return 16;
+    }
+  }
+
+}
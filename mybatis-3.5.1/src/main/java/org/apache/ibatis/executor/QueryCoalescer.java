@@ -0,0 +1,156 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.decorators.SerializedCache.CustomObjectInputStream;
+
+/**
+ * Lets concurrent executions of the same select share one database round trip.
+ * <p>
+ * The first caller for a {@link CacheKey} runs the query; callers arriving while it is in flight wait for it.
+ * These callers get a deep copy of the results, made by serialization like {@code readOnly="false"} caches do,
+ * so no result object is shared between sessions. When the results are not serializable, each of them runs
+ * the query on its own instead.
+ * Nothing is kept once the query completes, so this is not a cache.
+ *
+ * @see org.apache.ibatis.mapping.MappedStatement#isCoalesce()
+ */
+public class QueryCoalescer {
+
+  private final ConcurrentMap<CacheKey, InFlightQuery> inFlightQueries = new ConcurrentHashMap<>();
+
+  @FunctionalInterface
+  public interface Query<E> {
+    List<E> execute() throws SQLException;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <E> List<E> execute(CacheKey key, Query<E> query) throws SQLException {
+    InFlightQuery inFlight = new InFlightQuery();
+    InFlightQuery existing = inFlightQueries.putIfAbsent(key, inFlight);
+    if (existing != null && existing.join()) {
+      followerJoined(key);
+      byte[] serialized = await(existing.result);
+      // results that cannot be copied are read again
+      return serialized == null ? query.execute() : (List<E>) deserialize(serialized);
+    } else if (existing != null) {
+      // completed in the meantime
+      return query.execute();
+    }
+    try {
+      List<E> list = query.execute();
+      inFlightQueries.remove(key, inFlight);
+      inFlight.complete(list);
+      return list;
+    } catch (SQLException | RuntimeException | Error e) {
+      inFlightQueries.remove(key, inFlight);
+      inFlight.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Called once a caller waits for the results of a query already in flight.
+   */
+  void followerJoined(CacheKey key) {
+  }
+
+  private byte[] await(CompletableFuture<byte[]> inFlight) throws SQLException {
+    try {
+      return inFlight.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while waiting for a coalesced query.  Cause: " + e, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ExecutorException("Error executing a coalesced query.  Cause: " + cause, cause);
+    }
+  }
+
+  private static byte[] serialize(List<?> list) {
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+         ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+      oos.writeObject(list);
+      oos.flush();
+      return bos.toByteArray();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static List<?> deserialize(byte[] value) {
+    try (ByteArrayInputStream bis = new ByteArrayInputStream(value);
+         ObjectInputStream ois = new CustomObjectInputStream(bis)) {
+      return (List<?>) ois.readObject();
+    } catch (Exception e) {
+      throw new ExecutorException("Error copying the results of a coalesced query.  Cause: " + e, e);
+    }
+  }
+
+  private static class InFlightQuery {
+
+    private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+    private int followers;
+    private boolean done;
+
+    synchronized boolean join() {
+      if (done) {
+        return false;
+      }
+      followers++;
+      return true;
+    }
+
+    void complete(List<?> list) {
+      synchronized (this) {
+        done = true;
+        if (followers == 0) {
+          return;
+        }
+      }
+      // serialized by the calling session, before it can change the objects
+      result.complete(serialize(list));
+    }
+
+    void completeExceptionally(Throwable e) {
+      synchronized (this) {
+        done = true;
+      }
+      result.completeExceptionally(e);
+    }
+  }
+
+}
@@ -15,11 +15,15 @@
  */
 package org.apache.ibatis.executor;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,10 +42,33 @@ import org.apache.ibatis.transaction.Transaction;
  */
 public class ReuseExecutor extends BaseExecutor {
 
-  private final Map<String, Statement> statementMap = new HashMap<>();
+  private final Map<String, Statement> statementMap;
+  // statements being read by a query, an update or an open cursor, with how many of them
+  private final Map<Statement, Integer> statementsInUse = new IdentityHashMap<>();
+  // evicted statements still in use, closed once released
+  private final List<Statement> evictedStatements = new ArrayList<>();
+  private Connection statementConnection;
 
   public ReuseExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
+    final int maxReusedStatements = configuration.getMaxReusedStatements();
+    this.statementMap = new LinkedHashMap<String, Statement>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Statement> eldest) {
+        boolean tooBig = size() > maxReusedStatements;
+        if (tooBig) {
+          if (statementsInUse.containsKey(eldest.getValue())) {
+            // e.g. the parent query of a nested select, or an open cursor
+            evictedStatements.add(eldest.getValue());
+          } else {
+            closeStatement(eldest.getValue());
+          }
+        }
+        return tooBig;
+      }
+    };
   }
 
   @Override
@@ -49,7 +76,11 @@ public class ReuseExecutor extends BaseExecutor {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
     Statement stmt = prepareStatement(handler, ms.getStatementLog());
-    return handler.update(stmt);
+    try {
+      return handler.update(stmt);
+    } finally {
+      release(stmt);
+    }
   }
 
   @Override
@@ -57,7 +88,11 @@ public class ReuseExecutor extends BaseExecutor {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
     Statement stmt = prepareStatement(handler, ms.getStatementLog());
-    return handler.query(stmt, resultHandler);
+    try {
+      return handler.query(stmt, resultHandler);
+    } finally {
+      release(stmt);
+    }
   }
 
   @Override
@@ -65,48 +100,116 @@ public class ReuseExecutor extends BaseExecutor {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
     Statement stmt = prepareStatement(handler, ms.getStatementLog());
-    return handler.queryCursor(stmt);
+    try {
+      return new ReleasingCursor<>(handler.queryCursor(stmt), stmt);
+    } catch (SQLException | RuntimeException e) {
+      release(stmt);
+      throw e;
+    }
   }
 
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) {
+    // statements stay open across commits; a rollback also happens when the executor is closed
+    if (isRollback) {
+      closeStatements();
+    }
+    return Collections.emptyList();
+  }
+
+  private void closeStatements() {
     for (Statement stmt : statementMap.values()) {
       closeStatement(stmt);
     }
+    for (Statement stmt : evictedStatements) {
+      closeStatement(stmt);
+    }
     statementMap.clear();
-    return Collections.emptyList();
+    evictedStatements.clear();
+    statementsInUse.clear();
+    statementConnection = null;
+  }
+
+  private void release(Statement stmt) {
+    if (statementsInUse.merge(stmt, -1, Integer::sum) <= 0) {
+      statementsInUse.remove(stmt);
+      if (evictedStatements.remove(stmt)) {
+        closeStatement(stmt);
+      }
+    }
   }
 
   private Statement prepareStatement(StatementHandler handler, Log statementLog) throws SQLException {
     Statement stmt;
     BoundSql boundSql = handler.getBoundSql();
     String sql = boundSql.getSql();
-    if (hasStatementFor(sql)) {
-      stmt = getStatement(sql);
+    if (!statementMap.isEmpty() && transaction.getConnection() != statementConnection) {
+      // the transaction has moved to another connection
+      closeStatements();
+    }
+    stmt = statementMap.get(sql);
+    if (stmt != null) {
       applyTransactionTimeout(stmt);
     } else {
       Connection connection = getConnection(statementLog);
       stmt = handler.prepare(connection, transaction.getTimeout());
-      putStatement(sql, stmt);
+      statementConnection = transaction.getConnection();
+      statementMap.put(sql, stmt);
+    }
+    statementsInUse.merge(stmt, 1, Integer::sum);
+    try {
+      handler.parameterize(stmt);
+    } catch (SQLException | RuntimeException e) {
+      release(stmt);
+      throw e;
     }
-    handler.parameterize(stmt);
     return stmt;
   }
 
-  private boolean hasStatementFor(String sql) {
-    try {
-      return statementMap.keySet().contains(sql) && !statementMap.get(sql).getConnection().isClosed();
-    } catch (SQLException e) {
-      return false;
+  /**
+   * Keeps the statement of a cursor in use until the cursor is closed.
+   */
+  private class ReleasingCursor<T> implements Cursor<T> {
+
+    private final Cursor<T> delegate;
+    private Statement statement;
+
+    ReleasingCursor(Cursor<T> delegate, Statement statement) {
+      this.delegate = delegate;
+      this.statement = statement;
     }
-  }
 
-  private Statement getStatement(String s) {
-    return statementMap.get(s);
-  }
+    @Override
+    public boolean isOpen() {
+      return delegate.isOpen();
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return delegate.isConsumed();
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return delegate.getCurrentIndex();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return delegate.iterator();
+    }
 
-  private void putStatement(String sql, Statement stmt) {
-    statementMap.put(sql, stmt);
+    @Override
+    public void close() throws IOException {
+      try {
+        delegate.close();
+      } finally {
+        if (statement != null && statementsInUse.containsKey(statement)) {
+          release(statement);
+        }
+        statement = null;
+      }
+    }
   }
 
 }
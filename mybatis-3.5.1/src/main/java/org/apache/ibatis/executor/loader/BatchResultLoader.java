@@ -0,0 +1,206 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.defaults.DefaultSqlSession.StrictMap;
+
+/**
+ * Runs a nested select once for a batch of parent rows. The select receives the keys of all the rows
+ * as {@code list}, and each row gets the results whose batch key property holds its own key.
+ * <p>
+ * Rows are added while the parent result set is read. {@link #prepare()} must then be called while the
+ * executor is still open; the query itself runs when the first row of the batch needs its value.
+ *
+ * @since 3.5.2
+ */
+public class BatchResultLoader {
+
+  private final Configuration configuration;
+  private final Executor executor;
+  private final MappedStatement mappedStatement;
+  private final Class<?> targetType;
+  private final String batchKey;
+  private final int batchSize;
+  private final ResultExtractor resultExtractor;
+  private final Map<Object, Object> keys = new LinkedHashMap<>();
+  private final List<Target> targets = new ArrayList<>();
+
+  private CacheKey cacheKey;
+  private ResultLoader resultLoader;
+  private Map<Object, List<Object>> resultsByKey;
+
+  public BatchResultLoader(Configuration configuration, Executor executor, MappedStatement mappedStatement,
+      Class<?> targetType, String batchKey, int batchSize) {
+    this.configuration = configuration;
+    this.executor = executor;
+    this.mappedStatement = mappedStatement;
+    this.targetType = targetType;
+    this.batchKey = batchKey;
+    this.batchSize = batchSize;
+    this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+  }
+
+  /**
+   * Returns whether the row with the given key can join this batch.
+   */
+  public boolean accepts(Object key) {
+    return keys.size() < batchSize || keys.containsKey(normalizeKey(key));
+  }
+
+  /**
+   * Adds a row whose property is set as soon as the batch is loaded.
+   */
+  public void addTarget(MetaObject metaObject, String property, Object key) {
+    keys.putIfAbsent(normalizeKey(key), key);
+    targets.add(new Target(metaObject, property, key));
+  }
+
+  /**
+   * Adds a row whose property is loaded lazily, returning the loader to register for it. The first row
+   * of the batch to be loaded loads all the others.
+   */
+  public ResultLoader addLazyTarget(Object key) {
+    keys.putIfAbsent(normalizeKey(key), key);
+    // the parameter of a single row batch, used when the row has been serialized
+    Object parameterObject = wrapKeys(new ArrayList<>(Collections.singletonList(key)));
+    return new ResultLoader(configuration, executor, mappedStatement, parameterObject, targetType, null, null) {
+      @Override
+      public Object loadResult() throws SQLException {
+        resultObject = getResult(key);
+        return resultObject;
+      }
+    };
+  }
+
+  public void prepare() {
+    Object parameterObject = wrapKeys(new ArrayList<>(keys.values()));
+    BoundSql boundSql = mappedStatement.getBoundSql(parameterObject);
+    cacheKey = executor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
+    resultLoader = new ResultLoader(configuration, executor, mappedStatement, parameterObject, List.class, cacheKey, boundSql);
+  }
+
+  /**
+   * Sets the value of the rows added with {@link #addTarget(MetaObject, String, Object)}.
+   */
+  public void loadTargets() throws SQLException {
+    if (!targets.isEmpty() && resultsByKey == null && executor.isCached(mappedStatement, cacheKey)) {
+      // the same batch may still be executing further up a circular reference, its results are set once read
+      executor.deferLoad(mappedStatement, configuration.newMetaObject(new DeferredTargets(new ArrayList<>(targets))),
+          "results", cacheKey, List.class);
+    } else {
+      for (Target target : targets) {
+        target.metaObject.setValue(target.property, getResult(target.key));
+      }
+    }
+    targets.clear();
+  }
+
+  @SuppressWarnings("unchecked")
+  private synchronized Object getResult(Object key) throws SQLException {
+    if (resultsByKey == null) {
+      resultsByKey = groupByKey((List<Object>) resultLoader.loadResult());
+    }
+    return extractResult(key);
+  }
+
+  private Map<Object, List<Object>> groupByKey(List<Object> list) {
+    Map<Object, List<Object>> results = new HashMap<>();
+    for (Object result : list) {
+      Object resultKey = configuration.newMetaObject(result).getValue(batchKey);
+      results.computeIfAbsent(normalizeKey(resultKey), k -> new ArrayList<>()).add(result);
+    }
+    return results;
+  }
+
+  private Object extractResult(Object key) {
+    List<Object> results = resultsByKey.getOrDefault(normalizeKey(key), Collections.emptyList());
+    return resultExtractor.extractObjectFromList(new ArrayList<>(results), targetType);
+  }
+
+  /**
+   * Returns the parameter the nested select receives for the given keys.
+   */
+  public static Object wrapKeys(List<Object> keys) {
+    StrictMap<Object> map = new StrictMap<>();
+    map.put("collection", keys);
+    map.put("list", keys);
+    return map;
+  }
+
+  /**
+   * Makes keys read as different integral types, e.g. a parent INTEGER column and a child Long property, match.
+   */
+  private static Object normalizeKey(Object key) {
+    if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+      return ((Number) key).longValue();
+    }
+    return key;
+  }
+
+  /**
+   * Receives the results of the batch from the local cache, through {@link Executor#deferLoad}.
+   */
+  private class DeferredTargets {
+
+    private final List<Target> targets;
+
+    DeferredTargets(List<Target> targets) {
+      this.targets = targets;
+    }
+
+    @SuppressWarnings("unused")
+    public void setResults(List<Object> results) {
+      synchronized (BatchResultLoader.this) {
+        if (resultsByKey == null) {
+          resultsByKey = groupByKey(results);
+        }
+        for (Target target : targets) {
+          target.metaObject.setValue(target.property, extractResult(target.key));
+        }
+      }
+    }
+  }
+
+  private static class Target {
+
+    private final MetaObject metaObject;
+    private final String property;
+    private final Object key;
+
+    Target(MetaObject metaObject, String property, Object key) {
+      this.metaObject = metaObject;
+      this.property = property;
+      this.key = key;
+    }
+  }
+
+}
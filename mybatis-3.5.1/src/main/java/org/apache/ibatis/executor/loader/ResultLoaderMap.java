@@ -48,6 +48,7 @@ import org.apache.ibatis.session.RowBounds;
 public class ResultLoaderMap {
 
   private final Map<String, LoadPair> loaderMap = new HashMap<>();
+  private volatile boolean allLoaded = true;
 
   public void addLoader(String property, MetaObject metaResultObject, ResultLoader resultLoader) {
     String upperFirst = getUppercaseFirstProperty(property);
@@ -57,6 +58,7 @@ public class ResultLoaderMap {
               + " already exists in the result map. The leftmost property of all lazy loaded properties must be unique within a result map.");
     }
     loaderMap.put(upperFirst, new LoadPair(property, metaResultObject, resultLoader));
+    allLoaded = false;
   }
 
   public final Map<String, LoadPair> getProperties() {
@@ -71,6 +73,18 @@ public class ResultLoaderMap {
     return loaderMap.size();
   }
 
+  /**
+   * Tells whether every lazy property has been loaded or dropped. Unlike the other methods, this one may be
+   * called without holding the lock on this map: it only turns true once the last pending property has been
+   * assigned to the result object, so lazy loading proxies use it to skip locking on subsequent calls.
+   *
+   * @return true if there is nothing left to load
+   * @since 3.5.2
+   */
+  public boolean isAllLoaded() {
+    return allLoaded;
+  }
+
   public boolean hasLoader(String property) {
     return loaderMap.containsKey(property.toUpperCase(Locale.ENGLISH));
   }
@@ -78,7 +92,11 @@ public class ResultLoaderMap {
   public boolean load(String property) throws SQLException {
     LoadPair pair = loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
     if (pair != null) {
-      pair.load();
+      try {
+        pair.load();
+      } finally {
+        allLoaded = loaderMap.isEmpty();
+      }
       return true;
     }
     return false;
@@ -86,6 +104,7 @@ public class ResultLoaderMap {
 
   public void remove(String property) {
     loaderMap.remove(property.toUpperCase(Locale.ENGLISH));
+    allLoaded = loaderMap.isEmpty();
   }
 
   public void loadAll() throws SQLException {
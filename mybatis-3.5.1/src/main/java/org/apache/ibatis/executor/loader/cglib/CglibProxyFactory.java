@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2019 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,12 +15,19 @@
  */
 package org.apache.ibatis.executor.loader.cglib;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import net.sf.cglib.core.CodeGenerationException;
+import net.sf.cglib.core.ReflectUtils;
 import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.Enhancer;
 import net.sf.cglib.proxy.MethodInterceptor;
@@ -47,6 +54,12 @@ public class CglibProxyFactory implements ProxyFactory {
 
   private static final String FINALIZE_METHOD = "finalize";
   private static final String WRITE_REPLACE_METHOD = "writeReplace";
+  private static final ClassValue<ProxyClass> PROXY_CLASSES = new ClassValue<ProxyClass>() {
+    @Override
+    protected ProxyClass computeValue(Class<?> type) {
+      return new ProxyClass(createProxyClass(type));
+    }
+  };
 
   public CglibProxyFactory() {
     try {
@@ -71,8 +84,22 @@ public class CglibProxyFactory implements ProxyFactory {
   }
 
   static Object crateProxy(Class<?> type, Callback callback, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    ProxyClass proxyClass = PROXY_CLASSES.get(type);
+    Enhancer.registerCallbacks(proxyClass.proxyType, new Callback[]{callback});
+    try {
+      return proxyClass.getConstructor(constructorArgTypes).newInstance(constructorArgs.toArray());
+    } catch (InvocationTargetException e) {
+      throw new CodeGenerationException(e.getTargetException());
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw new CodeGenerationException(e);
+    } finally {
+      Enhancer.registerCallbacks(proxyClass.proxyType, null);
+    }
+  }
+
+  private static Class<?> createProxyClass(Class<?> type) {
     Enhancer enhancer = new Enhancer();
-    enhancer.setCallback(callback);
+    enhancer.setCallbackType(MethodInterceptor.class);
     enhancer.setSuperclass(type);
     try {
       type.getDeclaredMethod(WRITE_REPLACE_METHOD);
@@ -85,15 +112,29 @@ public class CglibProxyFactory implements ProxyFactory {
     } catch (SecurityException e) {
       // nothing to do here
     }
-    Object enhanced;
-    if (constructorArgTypes.isEmpty()) {
-      enhanced = enhancer.create();
-    } else {
-      Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
-      Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
-      enhanced = enhancer.create(typesArray, valuesArray);
+    return enhancer.createClass();
+  }
+
+  /**
+   * Proxy class generated for a target type, along with the constructors already resolved on it.
+   */
+  private static class ProxyClass {
+
+    private final Class<?> proxyType;
+    private final ConcurrentMap<List<Class<?>>, Constructor<?>> constructors = new ConcurrentHashMap<>();
+
+    private ProxyClass(Class<?> proxyType) {
+      this.proxyType = proxyType;
+    }
+
+    private Constructor<?> getConstructor(List<Class<?>> constructorArgTypes) {
+      Constructor<?> constructor = constructors.get(constructorArgTypes);
+      if (constructor == null) {
+        constructor = ReflectUtils.getConstructor(proxyType, constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
+        constructors.putIfAbsent(new ArrayList<>(constructorArgTypes), constructor);
+      }
+      return constructor;
     }
-    return enhanced;
   }
 
   private static class EnhancedResultObjectProxyImpl implements MethodInterceptor {
@@ -128,6 +169,9 @@ public class CglibProxyFactory implements ProxyFactory {
     public Object intercept(Object enhanced, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
       final String methodName = method.getName();
       try {
+        if (lazyLoader.isAllLoaded() && !WRITE_REPLACE_METHOD.equals(methodName)) {
+          return methodProxy.invokeSuper(enhanced, args);
+        }
         synchronized (lazyLoader) {
           if (WRITE_REPLACE_METHOD.equals(methodName)) {
             Object original;
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2019 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,11 +15,15 @@
  */
 package org.apache.ibatis.executor.loader.javassist;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javassist.util.proxy.MethodHandler;
 import javassist.util.proxy.Proxy;
@@ -46,6 +50,12 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
 
   private static final String FINALIZE_METHOD = "finalize";
   private static final String WRITE_REPLACE_METHOD = "writeReplace";
+  private static final ClassValue<ProxyClass> PROXY_CLASSES = new ClassValue<ProxyClass>() {
+    @Override
+    protected ProxyClass computeValue(Class<?> type) {
+      return new ProxyClass(createProxyClass(type));
+    }
+  };
 
   public JavassistProxyFactory() {
     try {
@@ -70,7 +80,18 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
   }
 
   static Object crateProxy(Class<?> type, MethodHandler callback, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    Object enhanced;
+    try {
+      Constructor<?> constructor = PROXY_CLASSES.get(type).getConstructor(constructorArgTypes);
+      enhanced = constructor.newInstance(constructorArgs.toArray());
+    } catch (Exception e) {
+      throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+    }
+    ((Proxy) enhanced).setHandler(callback);
+    return enhanced;
+  }
 
+  private static Class<?> createProxyClass(Class<?> type) {
     ProxyFactory enhancer = new ProxyFactory();
     enhancer.setSuperclass(type);
 
@@ -86,16 +107,29 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
       // nothing to do here
     }
 
-    Object enhanced;
-    Class<?>[] typesArray = constructorArgTypes.toArray(new Class[constructorArgTypes.size()]);
-    Object[] valuesArray = constructorArgs.toArray(new Object[constructorArgs.size()]);
-    try {
-      enhanced = enhancer.create(typesArray, valuesArray);
-    } catch (Exception e) {
-      throw new ExecutorException("Error creating lazy proxy.  Cause: " + e, e);
+    return enhancer.createClass();
+  }
+
+  /**
+   * Proxy class generated for a target type, along with the constructors already resolved on it.
+   */
+  private static class ProxyClass {
+
+    private final Class<?> proxyType;
+    private final ConcurrentMap<List<Class<?>>, Constructor<?>> constructors = new ConcurrentHashMap<>();
+
+    private ProxyClass(Class<?> proxyType) {
+      this.proxyType = proxyType;
+    }
+
+    private Constructor<?> getConstructor(List<Class<?>> constructorArgTypes) throws NoSuchMethodException {
+      Constructor<?> constructor = constructors.get(constructorArgTypes);
+      if (constructor == null) {
+        constructor = proxyType.getConstructor(constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
+        constructors.putIfAbsent(new ArrayList<>(constructorArgTypes), constructor);
+      }
+      return constructor;
     }
-    ((Proxy) enhanced).setHandler(callback);
-    return enhanced;
   }
 
   private static class EnhancedResultObjectProxyImpl implements MethodHandler {
@@ -130,6 +164,9 @@ public class JavassistProxyFactory implements org.apache.ibatis.executor.loader.
     public Object invoke(Object enhanced, Method method, Method methodProxy, Object[] args) throws Throwable {
       final String methodName = method.getName();
       try {
+        if (lazyLoader.isAllLoaded() && !WRITE_REPLACE_METHOD.equals(methodName)) {
+          return methodProxy.invoke(enhanced, args);
+        }
         synchronized (lazyLoader) {
           if (WRITE_REPLACE_METHOD.equals(methodName)) {
             Object original;
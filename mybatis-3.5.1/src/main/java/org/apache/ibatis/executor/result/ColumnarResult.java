@@ -0,0 +1,341 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Rows of a query stored column by column, as returned by {@code SqlSession#selectColumns}.
+ * <p>
+ * Integer, long and floating point columns are kept in primitive arrays, character columns are dictionary encoded,
+ * and the values of other columns are read through their type handler. Null values are tracked separately, so the
+ * array slot of a null holds 0.
+ *
+ * @since 3.5.2
+ */
+public final class ColumnarResult {
+
+  private final Map<String, Column> columns;
+  private final int rowCount;
+
+  ColumnarResult(List<Column> columns, int rowCount) {
+    this.columns = new LinkedHashMap<>();
+    for (Column column : columns) {
+      // like ResultSet#findColumn, the first column wins when names are duplicated
+      this.columns.putIfAbsent(column.getName(), column);
+    }
+    this.rowCount = rowCount;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public List<String> getColumnNames() {
+    return Collections.unmodifiableList(new ArrayList<>(columns.keySet()));
+  }
+
+  public Column getColumn(String name) {
+    final Column column = columns.get(name);
+    if (column == null) {
+      throw new IllegalArgumentException("There is no column named '" + name + "' in " + columns.keySet());
+    }
+    return column;
+  }
+
+  public long[] getLongs(String name) {
+    return getColumn(name).getLongs();
+  }
+
+  public int[] getInts(String name) {
+    return getColumn(name).getInts();
+  }
+
+  public double[] getDoubles(String name) {
+    return getColumn(name).getDoubles();
+  }
+
+  public String[] getStrings(String name) {
+    return getColumn(name).getStrings();
+  }
+
+  public Object[] getObjects(String name) {
+    return getColumn(name).getObjects();
+  }
+
+  public enum ColumnType {
+    LONG, INT, DOUBLE, STRING, OBJECT;
+
+    static ColumnType forJdbcType(JdbcType jdbcType) {
+      if (jdbcType == null) {
+        return OBJECT;
+      }
+      switch (jdbcType) {
+        case BIGINT:
+          return LONG;
+        case INTEGER:
+        case SMALLINT:
+        case TINYINT:
+          return INT;
+        case DOUBLE:
+        case FLOAT:
+        case REAL:
+          return DOUBLE;
+        case CHAR:
+        case VARCHAR:
+        case LONGVARCHAR:
+        case NCHAR:
+        case NVARCHAR:
+        case LONGNVARCHAR:
+          return STRING;
+        default:
+          // DECIMAL and NUMERIC included, a double would lose their precision
+          return OBJECT;
+      }
+    }
+
+    static ColumnType forJavaType(Class<?> javaType) {
+      if (Long.class.equals(javaType)) {
+        return LONG;
+      } else if (Integer.class.equals(javaType) || Short.class.equals(javaType) || Byte.class.equals(javaType)) {
+        return INT;
+      } else if (Double.class.equals(javaType) || Float.class.equals(javaType)) {
+        return DOUBLE;
+      } else if (String.class.equals(javaType)) {
+        return STRING;
+      }
+      return OBJECT;
+    }
+  }
+
+  /**
+   * The values of one column, only the array matching its {@link ColumnType} is filled.
+   */
+  public static final class Column {
+
+    private final String name;
+    private final ColumnType type;
+    private final BitSet nulls = new BitSet();
+    private long[] longs;
+    private int[] ints;
+    private double[] doubles;
+    private Object[] objects;
+    // strings are stored as codes into the dictionary
+    private List<String> dictionary;
+    private Map<String, Integer> codes;
+    private int size;
+
+    Column(String name, ColumnType type, int capacity) {
+      this.name = name;
+      this.type = type;
+      switch (type) {
+        case LONG:
+          longs = new long[capacity];
+          break;
+        case DOUBLE:
+          doubles = new double[capacity];
+          break;
+        case OBJECT:
+          objects = new Object[capacity];
+          break;
+        case STRING:
+          dictionary = new ArrayList<>();
+          codes = new HashMap<>();
+          ints = new int[capacity];
+          break;
+        default:
+          ints = new int[capacity];
+          break;
+      }
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public ColumnType getType() {
+      return type;
+    }
+
+    public boolean isNull(int row) {
+      return nulls.get(row);
+    }
+
+    public long[] getLongs() {
+      checkType(ColumnType.LONG);
+      return longs;
+    }
+
+    public int[] getInts() {
+      checkType(ColumnType.INT);
+      return ints;
+    }
+
+    public double[] getDoubles() {
+      checkType(ColumnType.DOUBLE);
+      return doubles;
+    }
+
+    public Object[] getObjects() {
+      checkType(ColumnType.OBJECT);
+      return objects;
+    }
+
+    /**
+     * Gets the dictionary codes of a string column, -1 for nulls.
+     */
+    public int[] getCodes() {
+      checkType(ColumnType.STRING);
+      return ints;
+    }
+
+    /**
+     * Gets the distinct values of a string column, indexed by their code.
+     */
+    public List<String> getDictionary() {
+      checkType(ColumnType.STRING);
+      return dictionary;
+    }
+
+    public String getString(int row) {
+      checkType(ColumnType.STRING);
+      final int code = ints[row];
+      return code < 0 ? null : dictionary.get(code);
+    }
+
+    /**
+     * Decodes a string column into one reference per row, the strings themselves are shared.
+     */
+    public String[] getStrings() {
+      checkType(ColumnType.STRING);
+      final String[] strings = new String[size];
+      for (int row = 0; row < size; row++) {
+        strings[row] = getString(row);
+      }
+      return strings;
+    }
+
+    private void checkType(ColumnType expected) {
+      if (type != expected) {
+        throw new IllegalStateException("Column '" + name + "' holds " + type + " values, not " + expected);
+      }
+    }
+
+    void addLong(long value, boolean isNull) {
+      ensureCapacity();
+      longs[size] = value;
+      next(isNull);
+    }
+
+    void addInt(int value, boolean isNull) {
+      ensureCapacity();
+      ints[size] = value;
+      next(isNull);
+    }
+
+    void addDouble(double value, boolean isNull) {
+      ensureCapacity();
+      doubles[size] = value;
+      next(isNull);
+    }
+
+    void addString(String value) {
+      ensureCapacity();
+      if (value == null) {
+        ints[size] = -1;
+      } else {
+        Integer code = codes.get(value);
+        if (code == null) {
+          code = dictionary.size();
+          dictionary.add(value);
+          codes.put(value, code);
+        }
+        ints[size] = code;
+      }
+      next(value == null);
+    }
+
+    void addObject(Object value) {
+      ensureCapacity();
+      objects[size] = value;
+      next(value == null);
+    }
+
+    private void next(boolean isNull) {
+      if (isNull) {
+        nulls.set(size);
+      }
+      size++;
+    }
+
+    private void ensureCapacity() {
+      final int capacity = capacity();
+      if (size == capacity) {
+        resize(Math.max(16, capacity * 2));
+      }
+    }
+
+    private int capacity() {
+      switch (type) {
+        case LONG:
+          return longs.length;
+        case DOUBLE:
+          return doubles.length;
+        case OBJECT:
+          return objects.length;
+        default:
+          return ints.length;
+      }
+    }
+
+    private void resize(int capacity) {
+      switch (type) {
+        case LONG:
+          longs = Arrays.copyOf(longs, capacity);
+          break;
+        case DOUBLE:
+          doubles = Arrays.copyOf(doubles, capacity);
+          break;
+        case OBJECT:
+          objects = Arrays.copyOf(objects, capacity);
+          break;
+        default:
+          ints = Arrays.copyOf(ints, capacity);
+          break;
+      }
+    }
+
+    void trim() {
+      if (size != capacity()) {
+        resize(size);
+      }
+      if (dictionary != null) {
+        dictionary = Collections.unmodifiableList(dictionary);
+        codes = null;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,202 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.result.ColumnarResult.Column;
+import org.apache.ibatis.executor.result.ColumnarResult.ColumnType;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.type.SimpleTypeRegistry;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Collects the rows of a query column by column into a {@link ColumnarResult}.
+ * <p>
+ * The default result set handler gives it the whole result set through {@link #handleResultSet(ResultSetWrapper, int)},
+ * so rows are never mapped to objects and only the first result set is read. When rows reach it as mapped objects
+ * instead, for example because a plugin or a custom executor handles the result set, {@link #handleResult(ResultContext)}
+ * collects the entries of map rows or the properties of bean rows, and the type of each column is picked from the
+ * values it holds.
+ *
+ * @since 3.5.2
+ */
+public class ColumnarResultHandler implements ResultHandler<Object> {
+
+  private ColumnarResult result;
+  // values of the mapped rows, by column name
+  private final Map<String, List<Object>> rowValues = new LinkedHashMap<>();
+  private int rowCount;
+
+  @Override
+  public void handleResult(ResultContext<?> context) {
+    final Object row = context.getResultObject();
+    if (row instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) row).entrySet()) {
+        addValue(String.valueOf(entry.getKey()), entry.getValue());
+      }
+    } else if (row != null) {
+      if (SimpleTypeRegistry.isSimpleType(row.getClass())) {
+        throw new ExecutorException("Columnar results need rows mapped to maps or beans, not to " + row.getClass().getName());
+      }
+      final MetaObject metaObject = SystemMetaObject.forObject(row);
+      for (String property : metaObject.getGetterNames()) {
+        addValue(property, metaObject.getValue(property));
+      }
+    }
+    rowCount++;
+  }
+
+  private void addValue(String columnName, Object value) {
+    final List<Object> values = rowValues.computeIfAbsent(columnName, k -> new ArrayList<>());
+    // the column was missing from the previous rows
+    while (values.size() < rowCount) {
+      values.add(null);
+    }
+    values.add(value);
+  }
+
+  /**
+   * Reads the remaining rows of a result set.
+   *
+   * @param rsw
+   * @param limit the maximum number of rows to read
+   * @return the number of rows read
+   * @throws SQLException
+   */
+  public int handleResultSet(ResultSetWrapper rsw, int limit) throws SQLException {
+    if (result != null) {
+      return 0;
+    }
+    final ResultSet rs = rsw.getResultSet();
+    final List<String> columnNames = rsw.getColumnNames();
+    final int columnCount = columnNames.size();
+    final int capacity = Math.min(Math.max(16, rs.getFetchSize()), limit);
+    final Column[] columns = new Column[columnCount];
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      final String columnName = columnNames.get(i);
+      final ColumnType type = ColumnType.forJdbcType(rsw.getJdbcTypes().get(i));
+      columns[i] = new Column(columnName, type, capacity);
+      if (type == ColumnType.OBJECT) {
+        typeHandlers[i] = rsw.getTypeHandler(Object.class, columnName);
+      }
+    }
+    int rowCount = 0;
+    while (rowCount < limit && !rs.isClosed() && rs.next()) {
+      for (int i = 0; i < columnCount; i++) {
+        final Column column = columns[i];
+        final int columnIndex = i + 1;
+        switch (column.getType()) {
+          case LONG:
+            final long longValue = rs.getLong(columnIndex);
+            column.addLong(longValue, rs.wasNull());
+            break;
+          case INT:
+            final int intValue = rs.getInt(columnIndex);
+            column.addInt(intValue, rs.wasNull());
+            break;
+          case DOUBLE:
+            final double doubleValue = rs.getDouble(columnIndex);
+            column.addDouble(doubleValue, rs.wasNull());
+            break;
+          case STRING:
+            column.addString(rs.getString(columnIndex));
+            break;
+          default:
+            column.addObject(typeHandlers[i].getResult(rs, columnIndex));
+            break;
+        }
+      }
+      rowCount++;
+    }
+    final List<Column> columnList = new ArrayList<>(columnCount);
+    for (Column column : columns) {
+      column.trim();
+      columnList.add(column);
+    }
+    result = new ColumnarResult(columnList, rowCount);
+    return rowCount;
+  }
+
+  /**
+   * @return the columns read, without any when the statement returned no result set
+   */
+  public ColumnarResult getResult() {
+    if (result == null) {
+      final List<Column> columns = new ArrayList<>(rowValues.size());
+      for (Map.Entry<String, List<Object>> entry : rowValues.entrySet()) {
+        columns.add(toColumn(entry.getKey(), entry.getValue()));
+      }
+      result = new ColumnarResult(columns, rowCount);
+    }
+    return result;
+  }
+
+  private Column toColumn(String columnName, List<Object> values) {
+    final ColumnType type = columnTypeOf(values);
+    final Column column = new Column(columnName, type, rowCount);
+    for (int row = 0; row < rowCount; row++) {
+      final Object value = row < values.size() ? values.get(row) : null;
+      final boolean isNull = value == null;
+      switch (type) {
+        case LONG:
+          column.addLong(isNull ? 0L : ((Number) value).longValue(), isNull);
+          break;
+        case INT:
+          column.addInt(isNull ? 0 : ((Number) value).intValue(), isNull);
+          break;
+        case DOUBLE:
+          column.addDouble(isNull ? 0d : ((Number) value).doubleValue(), isNull);
+          break;
+        case STRING:
+          column.addString((String) value);
+          break;
+        default:
+          column.addObject(value);
+          break;
+      }
+    }
+    column.trim();
+    return column;
+  }
+
+  private static ColumnType columnTypeOf(List<Object> values) {
+    ColumnType type = null;
+    for (Object value : values) {
+      if (value != null) {
+        final ColumnType valueType = ColumnType.forJavaType(value.getClass());
+        if (type == null) {
+          type = valueType;
+        } else if (type != valueType) {
+          return ColumnType.OBJECT;
+        }
+      }
+    }
+    return type == null ? ColumnType.OBJECT : type;
+  }
+
+}
@@ -0,0 +1,153 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only {@link Map} holding one row of a {@code resultType="map"} statement when {@code compactMapRows} is enabled.
+ * <p>
+ * The keys and their positions are shared by all rows of a result set, each row only keeps its values in an array.
+ * Like the {@link HashMap} filled otherwise, a key whose column was null is absent unless {@code callSettersOnNulls}
+ * is enabled. Copy the row into a new map to modify it.
+ *
+ * @since 3.5.2
+ */
+public final class CompactRowMap extends AbstractMap<String, Object> implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Keys keys;
+  private final Object[] values;
+  // slots explicitly set to null, values alone cannot tell them from unset slots
+  private BitSet nulls;
+  private int size;
+
+  CompactRowMap(Keys keys) {
+    this.keys = keys;
+    this.values = new Object[keys.names.length];
+  }
+
+  void set(int slot, Object value) {
+    if (!isPresent(slot)) {
+      size++;
+    }
+    values[slot] = value;
+    if (value == null) {
+      if (nulls == null) {
+        nulls = new BitSet(values.length);
+      }
+      nulls.set(slot);
+    } else if (nulls != null) {
+      nulls.clear(slot);
+    }
+  }
+
+  private boolean isPresent(int slot) {
+    return values[slot] != null || (nulls != null && nulls.get(slot));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Object get(Object key) {
+    final Integer slot = keys.slots.get(key);
+    return slot == null ? null : values[slot];
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    final Integer slot = keys.slots.get(key);
+    return slot != null && isPresent(slot);
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private class EntryIterator implements Iterator<Entry<String, Object>> {
+    private int next = advance(0);
+
+    private int advance(int slot) {
+      while (slot < values.length && !isPresent(slot)) {
+        slot++;
+      }
+      return slot;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < values.length;
+    }
+
+    @Override
+    public Entry<String, Object> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final int slot = next;
+      next = advance(slot + 1);
+      return new SimpleImmutableEntry<>(keys.names[slot], values[slot]);
+    }
+  }
+
+  /**
+   * The keys of the rows mapped from one result set and the slot of each of them.
+   */
+  static final class Keys implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] names;
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    Keys(List<String> names) {
+      this.names = names.toArray(new String[0]);
+      for (int i = 0; i < this.names.length; i++) {
+        slots.put(this.names[i], i);
+      }
+    }
+
+    int slotOf(String name) {
+      return slots.get(name);
+    }
+
+  }
+
+}
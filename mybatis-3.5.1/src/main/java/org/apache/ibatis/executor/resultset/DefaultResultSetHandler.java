@@ -21,8 +21,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -33,12 +35,15 @@ import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.BatchResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
@@ -72,6 +77,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
 
+  /**
+   * Larger maps of nested result objects are dropped rather than cleared when a result is released.
+   */
+  private static final int RELEASED_NESTED_RESULT_OBJECTS_KEPT = 256;
+
   private final Executor executor;
   private final Configuration configuration;
   private final MappedStatement mappedStatement;
@@ -84,7 +94,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final ReflectorFactory reflectorFactory;
 
   // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private Map<RowKey, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
 
@@ -92,8 +102,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
-  // Cached Automappings
-  private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
+  // batched nested queries
+  private final Map<ResultMapping, BatchResultLoader> batchResultLoaders = new IdentityHashMap<>();
+  private final List<BatchResultLoader> pendingBatchResultLoaders = new ArrayList<>();
+  private boolean batchNestedQueries;
+
+  // rows read, for the adaptive fetch size
+  private int rowCount;
 
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
@@ -103,14 +118,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     public ResultMapping propertyMapping;
   }
 
-  private static class UnMappedColumnAutoMapping {
-    private final String column;
-    private final String property;
-    private final TypeHandler<?> typeHandler;
-    private final boolean primitive;
+  static class UnMappedColumnAutoMapping {
+    final String column;
+    final int columnIndex;
+    final String property;
+    final TypeHandler<?> typeHandler;
+    final boolean primitive;
 
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+    public UnMappedColumnAutoMapping(String column, int columnIndex, String property, TypeHandler<?> typeHandler, boolean primitive) {
       this.column = column;
+      this.columnIndex = columnIndex;
       this.property = property;
       this.typeHandler = typeHandler;
       this.primitive = primitive;
@@ -160,7 +177,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     try {
       final String resultMapId = parameterMapping.getResultMapId();
       final ResultMap resultMap = configuration.getResultMap(resultMapId);
-      final ResultSetWrapper rsw = new ResultSetWrapper(rs, configuration);
+      final ResultSetWrapper rsw = new ResultSetWrapper(rs, configuration, mappedStatement);
       if (this.resultHandler == null) {
         final DefaultResultHandler resultHandler = new DefaultResultHandler(objectFactory);
         handleRowValues(rsw, resultMap, resultHandler, new RowBounds(), null);
@@ -212,9 +229,20 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    recordRowCount();
     return collapseSingleResultList(multipleResults);
   }
 
+  /**
+   * Adds the number of rows read to the statistics adaptive fetch sizes are picked from. Called once the results
+   * are read, by cursors when they are closed or consumed.
+   */
+  public void recordRowCount() {
+    if (configuration.isAdaptiveFetchSize() && mappedStatement.getFetchSize() == null) {
+      configuration.getFetchSizeStatistics().addRowCount(mappedStatement.getId(), rowCount);
+    }
+  }
+
   @Override
   public <E> Cursor<E> handleCursorResultSets(Statement stmt) throws SQLException {
     ErrorContext.instance().activity("handling cursor results").object(mappedStatement.getId());
@@ -230,7 +258,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
-    return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    Cursor<E> cursor = new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    if (configuration.getCursorPrefetchRows() != null || configuration.getCursorPrefetchBytes() != null) {
+      return new PrefetchingCursor<>(cursor, configuration);
+    }
+    return cursor;
   }
 
   private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
@@ -247,7 +279,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    return rs != null ? new ResultSetWrapper(rs, configuration) : null;
+    return rs != null ? new ResultSetWrapper(rs, configuration, mappedStatement) : null;
   }
 
   private ResultSetWrapper getNextResultSet(Statement stmt) {
@@ -260,7 +292,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           if (rs == null) {
             return getNextResultSet(stmt);
           } else {
-            return new ResultSetWrapper(rs, configuration);
+            return new ResultSetWrapper(rs, configuration, mappedStatement);
           }
         }
       }
@@ -281,7 +313,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private void cleanUpAfterHandlingResultSet() {
-    nestedResultObjects.clear();
+    releaseNestedResultObjects();
+  }
+
+  private void releaseNestedResultObjects() {
+    if (nestedResultObjects.size() > RELEASED_NESTED_RESULT_OBJECTS_KEPT) {
+      // clear() keeps the table, which would then be walked again at every later release
+      nestedResultObjects = new HashMap<>();
+    } else {
+      nestedResultObjects.clear();
+    }
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -292,6 +333,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private void handleResultSet(ResultSetWrapper rsw, ResultMap resultMap, List<Object> multipleResults, ResultMapping parentMapping) throws SQLException {
+    batchNestedQueries = true;
     try {
       if (parentMapping != null) {
         handleRowValues(rsw, resultMap, null, RowBounds.DEFAULT, parentMapping);
@@ -300,14 +342,20 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
           handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
           multipleResults.add(defaultResultHandler.getResultList());
+        } else if (resultHandler instanceof ColumnarResultHandler) {
+          // shortcut, other handlers hand it mapped rows through handleResult
+          skipRows(rsw.getResultSet(), rowBounds);
+          rowCount += ((ColumnarResultHandler) resultHandler).handleResultSet(rsw, rowBounds.getLimit());
         } else {
           handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
         }
       }
     } finally {
+      batchNestedQueries = false;
       // issue #228 (close resultsets)
       closeResultSet(rsw.getResultSet());
     }
+    loadBatchedNestedQueries();
   }
 
   @SuppressWarnings("unchecked")
@@ -350,6 +398,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+      rowCount++;
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
       Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
@@ -393,17 +442,34 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    FlatRowMapper flatRowMapper = columnPrefix == null ? rsw.getFlatRowMapper(resultMap) : null;
+    if (flatRowMapper == null && columnPrefix == null && configuration.isCompactMapRows() && resultMap.getType() == Map.class) {
+      // all rows must be compact, so the mapper is compiled before the first one
+      final List<UnMappedColumnAutoMapping> autoMappings = shouldApplyAutomaticMappings(resultMap, false)
+          ? createAutomaticMappings(rsw, resultMap, configuration.newMetaObject(new HashMap<>()), null) : Collections.emptyList();
+      flatRowMapper = FlatRowMapper.compileCompactMap(configuration, resultMap, rsw.getPropertyColumnIndexes(resultMap, null), autoMappings);
+      rsw.putFlatRowMapper(resultMap, flatRowMapper);
+    }
+    if (flatRowMapper != null && flatRowMapper != FlatRowMapper.UNSUPPORTED) {
+      return flatRowMapper.map(rsw.getResultSet(), configuration.isReturnInstanceForEmptyRow());
+    }
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
       final MetaObject metaObject = configuration.newMetaObject(rowValue);
       boolean foundValues = this.useConstructorMappings;
-      if (shouldApplyAutomaticMappings(resultMap, false)) {
+      final boolean autoMap = shouldApplyAutomaticMappings(resultMap, false);
+      if (autoMap) {
         foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, columnPrefix) || foundValues;
       }
       foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, columnPrefix) || foundValues;
       foundValues = lazyLoader.size() > 0 || foundValues;
       rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+      if (columnPrefix == null && flatRowMapper == null) {
+        // the first row went through the general path, later ones can skip the MetaObject
+        rsw.putFlatRowMapper(resultMap, FlatRowMapper.compile(configuration, resultMap, rsw.getPropertyColumnIndexes(resultMap, null),
+            autoMap ? createAutomaticMappings(rsw, resultMap, metaObject, null) : Collections.emptyList()));
+      }
     }
     return rowValue;
   }
@@ -426,19 +492,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
-    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    final int[] columnIndexes = rsw.getPropertyColumnIndexes(resultMap, columnPrefix);
     boolean foundValues = false;
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-    for (ResultMapping propertyMapping : propertyMappings) {
-      String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      if (propertyMapping.getNestedResultMapId() != null) {
-        // the user added a column attribute to a nested result map, ignore it
-        column = null;
-      }
+    for (int i = 0; i < columnIndexes.length; i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
       if (propertyMapping.isCompositeResult()
-          || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
+          || columnIndexes[i] > 0
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix, columnIndexes[i]);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -459,8 +521,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
-      throws SQLException {
+  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix,
+                                         int columnIndex) throws SQLException {
     if (propertyMapping.getNestedQueryId() != null) {
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
@@ -468,14 +530,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       return DEFERRED;
     } else {
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
+      if (columnIndex > 0 && ResultSetWrapper.readsByIndex(typeHandler)) {
+        return typeHandler.getResult(rs, columnIndex);
+      }
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
       return typeHandler.getResult(rs, column);
     }
   }
 
   private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
-    final String mapKey = resultMap.getId() + ":" + columnPrefix;
-    List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
+    // the properties found depend on the class of the result object, which may differ from the result map type
+    final String mapKey = resultMap.getId() + ":" + columnPrefix + ":" + metaObject.getOriginalObject().getClass().getName();
+    List<UnMappedColumnAutoMapping> autoMapping = rsw.getAutoMappings(mapKey);
     if (autoMapping == null) {
       autoMapping = new ArrayList<>();
       final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
@@ -498,7 +564,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           final Class<?> propertyType = metaObject.getSetterType(property);
           if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
             final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+            autoMapping.add(new UnMappedColumnAutoMapping(columnName, rsw.getColumnIndex(columnName), property, typeHandler, propertyType.isPrimitive()));
           } else {
             configuration.getAutoMappingUnknownColumnBehavior()
                 .doAction(mappedStatement, columnName, property, propertyType);
@@ -508,7 +574,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
         }
       }
-      autoMappingsCache.put(mapKey, autoMapping);
+      rsw.putAutoMappings(mapKey, autoMapping);
     }
     return autoMapping;
   }
@@ -518,7 +584,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = ResultSetWrapper.readsByIndex(mapping.typeHandler)
+            ? mapping.typeHandler.getResult(rsw.getResultSet(), mapping.columnIndex)
+            : mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
         if (value != null) {
           foundValues = true;
         }
@@ -635,7 +703,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           value = getRowValue(rsw, resultMap, getColumnPrefix(columnPrefix, constructorMapping));
         } else {
           final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          final String prefixedColumn = prependPrefix(column, columnPrefix);
+          final int columnIndex = rsw.getColumnIndex(prefixedColumn);
+          value = columnIndex > 0 && ResultSetWrapper.readsByIndex(typeHandler) ? typeHandler.getResult(rsw.getResultSet(), columnIndex)
+              : typeHandler.getResult(rsw.getResultSet(), prefixedColumn);
         }
       } catch (ResultMapException | SQLException e) {
         throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
@@ -648,14 +719,23 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private Object createByConstructorSignature(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws SQLException {
+    Constructor<?> constructor = rsw.getAutomapConstructor(resultType);
+    if (constructor == null) {
+      constructor = findAutomapConstructor(rsw, resultType);
+      rsw.putAutomapConstructor(resultType, constructor);
+    }
+    return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, constructor);
+  }
+
+  private Constructor<?> findAutomapConstructor(ResultSetWrapper rsw, Class<?> resultType) {
     final Constructor<?>[] constructors = resultType.getDeclaredConstructors();
     final Constructor<?> defaultConstructor = findDefaultConstructor(constructors);
     if (defaultConstructor != null) {
-      return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, defaultConstructor);
+      return defaultConstructor;
     } else {
       for (Constructor<?> constructor : constructors) {
         if (allowedConstructorUsingTypeHandlers(constructor, rsw.getJdbcTypes())) {
-          return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, constructor);
+          return constructor;
         }
       }
     }
@@ -664,11 +744,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private Object createUsingConstructor(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Constructor<?> constructor) throws SQLException {
     boolean foundValues = false;
-    for (int i = 0; i < constructor.getParameterTypes().length; i++) {
-      Class<?> parameterType = constructor.getParameterTypes()[i];
+    final Class<?>[] parameterTypes = constructor.getParameterTypes();
+    for (int i = 0; i < parameterTypes.length; i++) {
+      Class<?> parameterType = parameterTypes[i];
       String columnName = rsw.getColumnNames().get(i);
       TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
+      Object value = ResultSetWrapper.readsByIndex(typeHandler) ? typeHandler.getResult(rsw.getResultSet(), i + 1)
+          : typeHandler.getResult(rsw.getResultSet(), columnName);
       constructorArgTypes.add(parameterType);
       constructorArgs.add(value);
       foundValues = value != null || foundValues;
@@ -744,7 +826,25 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
     final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
-    if (nestedQueryParameterObject != null) {
+    if (nestedQueryParameterObject != null && propertyMapping.getBatchSize() > 0) {
+      final Object batchParameterObject = BatchResultLoader.wrapKeys(Collections.singletonList(nestedQueryParameterObject));
+      final BoundSql nestedBoundSql = nestedQuery.getBoundSql(batchParameterObject);
+      final CacheKey key = executor.createCacheKey(nestedQuery, batchParameterObject, RowBounds.DEFAULT, nestedBoundSql);
+      if (executor.isCached(nestedQuery, key)) {
+        // a batch of this key alone, which may still be executing through a circular reference
+        executor.deferLoad(nestedQuery, metaResultObject, property, key, propertyMapping.getJavaType());
+      } else {
+        BatchResultLoader batchResultLoader = addToBatch(nestedQuery, metaResultObject, propertyMapping, nestedQueryParameterObject, lazyLoader);
+        if (!canDeferBatch(propertyMapping)) {
+          // a batch of this row only
+          batchResultLoaders.remove(propertyMapping);
+          pendingBatchResultLoaders.remove(batchResultLoader);
+          batchResultLoader.prepare();
+          batchResultLoader.loadTargets();
+        }
+      }
+      value = DEFERRED;
+    } else if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
       final CacheKey key = executor.createCacheKey(nestedQuery, nestedQueryParameterObject, RowBounds.DEFAULT, nestedBoundSql);
       final Class<?> targetType = propertyMapping.getJavaType();
@@ -764,6 +864,42 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  private boolean canDeferBatch(ResultMapping propertyMapping) {
+    // eager values are set once the result set is read, so a result handler would see them unset
+    return batchNestedQueries && (propertyMapping.isLazy() || resultHandler == null);
+  }
+
+  private BatchResultLoader addToBatch(MappedStatement nestedQuery, MetaObject metaResultObject, ResultMapping propertyMapping,
+      Object key, ResultLoaderMap lazyLoader) {
+    BatchResultLoader batchResultLoader = batchResultLoaders.get(propertyMapping);
+    if (batchResultLoader == null || !batchResultLoader.accepts(key)) {
+      batchResultLoader = new BatchResultLoader(configuration, executor, nestedQuery, propertyMapping.getJavaType(),
+          propertyMapping.getBatchKey(), propertyMapping.getBatchSize());
+      batchResultLoaders.put(propertyMapping, batchResultLoader);
+      pendingBatchResultLoaders.add(batchResultLoader);
+    }
+    if (propertyMapping.isLazy()) {
+      lazyLoader.addLoader(propertyMapping.getProperty(), metaResultObject, batchResultLoader.addLazyTarget(key));
+    } else {
+      batchResultLoader.addTarget(metaResultObject, propertyMapping.getProperty(), key);
+    }
+    return batchResultLoader;
+  }
+
+  private void loadBatchedNestedQueries() throws SQLException {
+    try {
+      for (BatchResultLoader batchResultLoader : pendingBatchResultLoaders) {
+        batchResultLoader.prepare();
+      }
+      for (BatchResultLoader batchResultLoader : pendingBatchResultLoaders) {
+        batchResultLoader.loadTargets();
+      }
+    } finally {
+      batchResultLoaders.clear();
+      pendingBatchResultLoaders.clear();
+    }
+  }
+
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
       return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
@@ -856,13 +992,15 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     skipRows(resultSet, rowBounds);
     Object rowValue = previousRowValue;
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+      rowCount++;
       final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
+      final RowKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
       if (mappedStatement.isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
-          nestedResultObjects.clear();
+          // the previous result is complete, hand it out and forget its nested objects
+          releaseNestedResultObjects();
           storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
         }
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
@@ -885,7 +1023,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
 
-  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, CacheKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
+  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, RowKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
     final String resultMapId = resultMap.getId();
     Object rowValue = partialObject;
     if (rowValue != null) {
@@ -909,7 +1047,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         foundValues = lazyLoader.size() > 0 || foundValues;
         rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
       }
-      if (combinedKey != CacheKey.NULL_CACHE_KEY) {
+      if (combinedKey != RowKey.NULL) {
         nestedResultObjects.put(combinedKey, rowValue);
       }
     }
@@ -924,7 +1062,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // NESTED RESULT MAP (JOIN MAPPING)
   //
 
-  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, CacheKey parentRowKey, boolean newObject) {
+  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, RowKey parentRowKey, boolean newObject) {
     boolean foundValues = false;
     for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
       final String nestedResultMapId = resultMapping.getNestedResultMapId();
@@ -943,8 +1081,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               continue;
             }
           }
-          final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-          final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+          final RowKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
+          final RowKey combinedKey = rowKey.combine(parentRowKey);
           Object rowValue = nestedResultObjects.get(combinedKey);
           boolean knownValue = rowValue != null;
           instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
@@ -964,6 +1102,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private String getColumnPrefix(String parentPrefix, ResultMapping resultMapping) {
+    if (parentPrefix == null && resultMapping.getColumnPrefix() == null) {
+      return null;
+    }
     final StringBuilder columnPrefixBuilder = new StringBuilder();
     if (parentPrefix != null) {
       columnPrefixBuilder.append(parentPrefix);
@@ -1005,37 +1146,38 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // UNIQUE RESULT KEY
   //
 
-  private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-    final CacheKey cacheKey = new CacheKey();
-    cacheKey.update(resultMap.getId());
+  private RowKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    RowKey.Columns rowKeyColumns = rsw.getRowKeyColumns(resultMap, columnPrefix);
+    if (rowKeyColumns == null) {
+      rowKeyColumns = createRowKeyColumns(resultMap, rsw, columnPrefix);
+      rsw.putRowKeyColumns(resultMap, columnPrefix, rowKeyColumns);
+    }
+    return rowKeyColumns.createKey(rsw.getResultSet());
+  }
+
+  private RowKey.Columns createRowKeyColumns(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    final List<String> columns = new ArrayList<>();
+    final List<TypeHandler<?>> typeHandlers = new ArrayList<>();
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
+    boolean nullsCount = false;
     if (resultMappings.isEmpty()) {
       if (Map.class.isAssignableFrom(resultMap.getType())) {
-        createRowKeyForMap(rsw, cacheKey);
+        createRowKeyForMap(rsw, columns, typeHandlers);
       } else {
-        createRowKeyForUnmappedProperties(resultMap, rsw, cacheKey, columnPrefix);
+        createRowKeyForUnmappedProperties(resultMap, rsw, columns, typeHandlers, columnPrefix);
       }
     } else {
-      createRowKeyForMappedProperties(resultMap, rsw, cacheKey, resultMappings, columnPrefix);
-    }
-    if (cacheKey.getUpdateCount() < 2) {
-      return CacheKey.NULL_CACHE_KEY;
+      createRowKeyForMappedProperties(resultMap, rsw, columns, typeHandlers, resultMappings, columnPrefix);
+      nullsCount = configuration.isReturnInstanceForEmptyRow();
     }
-    return cacheKey;
-  }
-
-  private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
-    if (rowKey.getUpdateCount() > 1 && parentRowKey.getUpdateCount() > 1) {
-      CacheKey combinedKey;
-      try {
-        combinedKey = rowKey.clone();
-      } catch (CloneNotSupportedException e) {
-        throw new ExecutorException("Error cloning cache key.  Cause: " + e, e);
+    final int[] columnIndexes = new int[columns.size()];
+    for (int i = 0; i < columnIndexes.length; i++) {
+      columnIndexes[i] = rsw.getColumnIndex(columns.get(i));
+      if (typeHandlers.get(i) != null) {
+        typeHandlers.set(i, ResultSetWrapper.byIndex(typeHandlers.get(i), columns.get(i)));
       }
-      combinedKey.update(parentRowKey);
-      return combinedKey;
     }
-    return CacheKey.NULL_CACHE_KEY;
+    return new RowKey.Columns(resultMap.getId(), columnPrefix, columnIndexes, typeHandlers.toArray(new TypeHandler<?>[0]), nullsCount);
   }
 
   private List<ResultMapping> getResultMappingsForRowKey(ResultMap resultMap) {
@@ -1046,30 +1188,28 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return resultMappings;
   }
 
-  private void createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
+  private void createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, List<String> columns, List<TypeHandler<?>> typeHandlers,
+      List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
     for (ResultMapping resultMapping : resultMappings) {
       if (resultMapping.getNestedResultMapId() != null && resultMapping.getResultSet() == null) {
         // Issue #392
         final ResultMap nestedResultMap = configuration.getResultMap(resultMapping.getNestedResultMapId());
-        createRowKeyForMappedProperties(nestedResultMap, rsw, cacheKey, nestedResultMap.getConstructorResultMappings(),
+        createRowKeyForMappedProperties(nestedResultMap, rsw, columns, typeHandlers, nestedResultMap.getConstructorResultMappings(),
             prependPrefix(resultMapping.getColumnPrefix(), columnPrefix));
       } else if (resultMapping.getNestedQueryId() == null) {
         final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
-        final TypeHandler<?> th = resultMapping.getTypeHandler();
         List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
-          if (value != null || configuration.isReturnInstanceForEmptyRow()) {
-            cacheKey.update(column);
-            cacheKey.update(value);
-          }
+          columns.add(column);
+          typeHandlers.add(resultMapping.getTypeHandler());
         }
       }
     }
   }
 
-  private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, String columnPrefix) throws SQLException {
+  private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, List<String> columns, List<TypeHandler<?>> typeHandlers,
+      String columnPrefix) throws SQLException {
     final MetaClass metaType = MetaClass.forClass(resultMap.getType(), reflectorFactory);
     List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
     for (String column : unmappedColumnNames) {
@@ -1083,23 +1223,18 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
-        String value = rsw.getResultSet().getString(column);
-        if (value != null) {
-          cacheKey.update(column);
-          cacheKey.update(value);
-        }
+        // read as a string
+        columns.add(column);
+        typeHandlers.add(null);
       }
     }
   }
 
-  private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
-    List<String> columnNames = rsw.getColumnNames();
-    for (String columnName : columnNames) {
-      final String value = rsw.getResultSet().getString(columnName);
-      if (value != null) {
-        cacheKey.update(columnName);
-        cacheKey.update(value);
-      }
+  private void createRowKeyForMap(ResultSetWrapper rsw, List<String> columns, List<TypeHandler<?>> typeHandlers) {
+    for (String columnName : rsw.getColumnNames()) {
+      // read as a string
+      columns.add(columnName);
+      typeHandlers.add(null);
     }
   }
 
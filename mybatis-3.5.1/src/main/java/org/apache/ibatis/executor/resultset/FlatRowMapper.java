@@ -0,0 +1,314 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Maps the rows of a flat result map straight into a bean.
+ * <p>
+ * The result object is created through a constructor lambda and every value is set through a setter lambda
+ * spun by {@link LambdaMetafactory}, so rows are mapped without a {@code MetaObject}, property tokenizing or
+ * reflective calls. Setters that cannot be linked this way, e.g. private ones, go through the reflector's invoker.
+ * <p>
+ * Only result maps without constructor mappings, nested result maps, nested queries, multiple result sets or
+ * nested property paths qualify, and only with the default object factory and object wrapper factory.
+ *
+ * @since 3.5.2
+ */
+final class FlatRowMapper {
+
+  /**
+   * Marks a result map that has to be mapped by the general path.
+   */
+  static final FlatRowMapper UNSUPPORTED = new FlatRowMapper(null, new ColumnSetter[0]);
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private final Supplier<Object> constructor;
+  private final ColumnSetter[] setters;
+
+  private FlatRowMapper(Supplier<Object> constructor, ColumnSetter[] setters) {
+    this.constructor = constructor;
+    this.setters = setters;
+  }
+
+  /**
+   * Compiles the mapper of a result map for the columns of a result set.
+   *
+   * @param configuration
+   * @param resultMap
+   * @param propertyColumnIndexes the column indexes of the property mappings
+   * @param autoMappings the automatic mappings applied before the property mappings
+   * @return the mapper, or {@link #UNSUPPORTED} when the result map needs the general path
+   */
+  static FlatRowMapper compile(Configuration configuration, ResultMap resultMap, int[] propertyColumnIndexes,
+      List<DefaultResultSetHandler.UnMappedColumnAutoMapping> autoMappings) {
+    final Class<?> type = resultMap.getType();
+    if (!isFlat(configuration, resultMap)) {
+      return UNSUPPORTED;
+    }
+    final MetaClass metaClass = MetaClass.forClass(type, configuration.getReflectorFactory());
+    if (!metaClass.hasDefaultConstructor()) {
+      return UNSUPPORTED;
+    }
+    final boolean callSettersOnNulls = configuration.isCallSettersOnNulls();
+    final List<ColumnSetter> setters = new ArrayList<>();
+    for (DefaultResultSetHandler.UnMappedColumnAutoMapping autoMapping : autoMappings) {
+      if (!isSimpleProperty(autoMapping.property) || autoMapping.columnIndex <= 0) {
+        return UNSUPPORTED;
+      }
+      final TypeHandler<?> typeHandler = ResultSetWrapper.byIndex(autoMapping.typeHandler, autoMapping.column);
+      setters.add(new ColumnSetter(autoMapping.columnIndex, typeHandler, autoMapping.property,
+          setter(type, metaClass, autoMapping.property), callSettersOnNulls && !autoMapping.primitive));
+    }
+    final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+    for (int i = 0; i < propertyColumnIndexes.length; i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
+      final String property = propertyMapping.getProperty();
+      // like the general path, unmatched columns and mappings without property are skipped
+      if (propertyColumnIndexes[i] <= 0 || property == null) {
+        continue;
+      }
+      if (!isSimpleProperty(property) || !metaClass.hasSetter(property)) {
+        return UNSUPPORTED;
+      }
+      final TypeHandler<?> typeHandler = ResultSetWrapper.byIndex(propertyMapping.getTypeHandler(), propertyMapping.getColumn());
+      setters.add(new ColumnSetter(propertyColumnIndexes[i], typeHandler, property,
+          setter(type, metaClass, property), callSettersOnNulls && !metaClass.getSetterType(property).isPrimitive()));
+    }
+    return new FlatRowMapper(constructor(type, configuration.getObjectFactory()), setters.toArray(new ColumnSetter[0]));
+  }
+
+  /**
+   * Compiles the mapper filling {@link CompactRowMap}s for a {@code Map} result map.
+   *
+   * @param configuration
+   * @param resultMap
+   * @param propertyColumnIndexes the column indexes of the property mappings
+   * @param autoMappings the automatic mappings applied before the property mappings
+   * @return the mapper, or {@link #UNSUPPORTED} when the result map needs the general path
+   */
+  static FlatRowMapper compileCompactMap(Configuration configuration, ResultMap resultMap, int[] propertyColumnIndexes,
+      List<DefaultResultSetHandler.UnMappedColumnAutoMapping> autoMappings) {
+    if (resultMap.getType() != Map.class || !hasFlatMappings(configuration, resultMap)) {
+      return UNSUPPORTED;
+    }
+    final List<String> names = new ArrayList<>();
+    final List<Integer> columnIndexes = new ArrayList<>();
+    final List<TypeHandler<?>> typeHandlers = new ArrayList<>();
+    for (DefaultResultSetHandler.UnMappedColumnAutoMapping autoMapping : autoMappings) {
+      names.add(autoMapping.property);
+      columnIndexes.add(autoMapping.columnIndex);
+      typeHandlers.add(ResultSetWrapper.byIndex(autoMapping.typeHandler, autoMapping.column));
+    }
+    final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+    for (int i = 0; i < propertyColumnIndexes.length; i++) {
+      final String property = propertyMappings.get(i).getProperty();
+      if (propertyColumnIndexes[i] > 0 && property != null) {
+        names.add(property);
+        columnIndexes.add(propertyColumnIndexes[i]);
+        typeHandlers.add(ResultSetWrapper.byIndex(propertyMappings.get(i).getTypeHandler(), propertyMappings.get(i).getColumn()));
+      }
+    }
+    for (int i = 0; i < names.size(); i++) {
+      // a MapWrapper would create nested maps for these
+      if (!isSimpleProperty(names.get(i)) || columnIndexes.get(i) <= 0) {
+        return UNSUPPORTED;
+      }
+    }
+    // a property mapped twice keeps its slot, the last value wins as with put
+    final CompactRowMap.Keys keys = new CompactRowMap.Keys(new ArrayList<>(new LinkedHashSet<>(names)));
+    final boolean callSettersOnNulls = configuration.isCallSettersOnNulls();
+    final ColumnSetter[] setters = new ColumnSetter[names.size()];
+    for (int i = 0; i < setters.length; i++) {
+      final int slot = keys.slotOf(names.get(i));
+      setters[i] = new ColumnSetter(columnIndexes.get(i), typeHandlers.get(i), names.get(i),
+          (target, value) -> ((CompactRowMap) target).set(slot, value), callSettersOnNulls);
+    }
+    return new FlatRowMapper(() -> new CompactRowMap(keys), setters);
+  }
+
+  /**
+   * Maps the current row.
+   *
+   * @param rs
+   * @param returnInstanceForEmptyRow
+   * @return the result object, or {@code null} if all columns were null and empty rows are not returned
+   * @throws SQLException
+   */
+  Object map(ResultSet rs, boolean returnInstanceForEmptyRow) throws SQLException {
+    final Object rowValue = constructor.get();
+    boolean foundValues = false;
+    for (ColumnSetter setter : setters) {
+      final Object value = setter.typeHandler.getResult(rs, setter.columnIndex);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || setter.setsNulls) {
+        setter.set(rowValue, value);
+      }
+    }
+    return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+  }
+
+  private static boolean isFlat(Configuration configuration, ResultMap resultMap) {
+    final Class<?> type = resultMap.getType();
+    if (type.isInterface() || type.isArray() || Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)
+        || Modifier.isAbstract(type.getModifiers())) {
+      return false;
+    }
+    return hasFlatMappings(configuration, resultMap);
+  }
+
+  private static boolean hasFlatMappings(Configuration configuration, ResultMap resultMap) {
+    if (configuration.getObjectFactory().getClass() != DefaultObjectFactory.class
+        || configuration.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class) {
+      return false;
+    }
+    if (resultMap.hasNestedResultMaps() || resultMap.hasNestedQueries() || !resultMap.getConstructorResultMappings().isEmpty()) {
+      return false;
+    }
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.isCompositeResult() || propertyMapping.getResultSet() != null
+          || propertyMapping.getNestedResultMapId() != null || propertyMapping.getNestedQueryId() != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSimpleProperty(String property) {
+    return property.indexOf('.') < 0 && property.indexOf('[') < 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Supplier<Object> constructor(Class<?> type, ObjectFactory objectFactory) {
+    if (Modifier.isPublic(type.getModifiers()) && isVisible(type)) {
+      try {
+        final MethodHandle handle = LOOKUP.findConstructor(type, MethodType.methodType(void.class));
+        final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+            MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+        return (Supplier<Object>) site.getTarget().invokeExact();
+      } catch (Throwable e) {
+        // not public, fall back to the object factory
+      }
+    }
+    return () -> objectFactory.create(type);
+  }
+
+  private static PropertySetter setter(Class<?> type, MetaClass metaClass, String property) {
+    final Class<?> setterType = metaClass.getSetterType(property);
+    final Method method = findSetter(type, property, setterType);
+    if (method != null && Modifier.isPublic(type.getModifiers()) && isVisible(type) && isVisible(setterType)) {
+      try {
+        final MethodHandle handle = LOOKUP.unreflect(method);
+        final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "set", MethodType.methodType(PropertySetter.class),
+            MethodType.methodType(void.class, Object.class, Object.class), handle,
+            MethodType.methodType(void.class, type, MethodType.methodType(setterType).wrap().returnType()));
+        return (PropertySetter) site.getTarget().invokeExact();
+      } catch (Throwable e) {
+        // not accessible from here, fall back to the reflector
+      }
+    }
+    final Invoker invoker = metaClass.getSetInvoker(property);
+    return (target, value) -> invoker.invoke(target, new Object[] { value });
+  }
+
+  private static Method findSetter(Class<?> type, String property, Class<?> setterType) {
+    for (Method method : type.getMethods()) {
+      final String name = method.getName();
+      if (name.startsWith("set") && name.length() > 3 && !method.isBridge() && method.getParameterCount() == 1
+          && method.getParameterTypes()[0] == setterType && property.equals(PropertyNamer.methodToProperty(name))) {
+        return method;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Lambdas are defined next to this class, so the classes they cast to must resolve from its class loader.
+   */
+  private static boolean isVisible(Class<?> type) {
+    if (type.isPrimitive()) {
+      return true;
+    }
+    try {
+      return Class.forName(type.getName(), false, FlatRowMapper.class.getClassLoader()) == type;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  @FunctionalInterface
+  interface PropertySetter {
+    void set(Object target, Object value) throws Throwable;
+  }
+
+  private static final class ColumnSetter {
+    private final int columnIndex;
+    private final TypeHandler<?> typeHandler;
+    private final String property;
+    private final PropertySetter setter;
+    private final boolean setsNulls;
+
+    ColumnSetter(int columnIndex, TypeHandler<?> typeHandler, String property, PropertySetter setter, boolean setsNulls) {
+      this.columnIndex = columnIndex;
+      this.typeHandler = typeHandler;
+      this.property = property;
+      this.setter = setter;
+      this.setsNulls = setsNulls;
+    }
+
+    void set(Object target, Object value) {
+      try {
+        setter.set(target, value);
+      } catch (Throwable t) {
+        final Throwable cause = ExceptionUtil.unwrapThrowable(t);
+        // same message as when the value is set through a MetaObject
+        throw new ReflectionException("Could not set property '" + property + "' of '" + target.getClass() + "' with value '" + value + "' Cause: " + cause.toString(), cause);
+      }
+    }
+  }
+
+}
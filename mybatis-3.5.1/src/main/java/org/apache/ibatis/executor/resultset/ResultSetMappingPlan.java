@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * What the result set handler resolves from the metadata of a result set: the columns, their type handlers,
+ * the mapped and unmapped columns, property column indexes, automatic mappings, flat row mappers and row key
+ * columns of each result map, and the constructors chosen for result types mapped by constructor signature.
+ * <p>
+ * All of it depends only on the column labels, JDBC types and class names of the result set, so plans are
+ * cached per statement, keyed by those three lists, and shared by later executions.
+ *
+ * @see ResultSetMappingPlanCache
+ *
+ * @since 3.5.2
+ */
+public final class ResultSetMappingPlan {
+
+  final List<String> columnNames;
+  final List<String> classNames;
+  final List<JdbcType> jdbcTypes;
+  final Map<String, Integer> columnIndexMap = new HashMap<>();
+  final ConcurrentMap<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new ConcurrentHashMap<>();
+  final ConcurrentMap<String, List<String>> mappedColumnNamesMap = new ConcurrentHashMap<>();
+  final ConcurrentMap<String, List<String>> unMappedColumnNamesMap = new ConcurrentHashMap<>();
+  final ConcurrentMap<String, int[]> propertyColumnIndexesMap = new ConcurrentHashMap<>();
+  final ConcurrentMap<String, List<DefaultResultSetHandler.UnMappedColumnAutoMapping>> autoMappingsMap = new ConcurrentHashMap<>();
+  final ConcurrentMap<String, FlatRowMapper> flatRowMappers = new ConcurrentHashMap<>();
+  final ConcurrentMap<String, ConcurrentMap<String, RowKey.Columns>> rowKeyColumnsMap = new ConcurrentHashMap<>();
+  final ConcurrentMap<Class<?>, Constructor<?>> automapConstructors = new ConcurrentHashMap<>();
+
+  private ResultSetMappingPlan(List<String> columnNames, List<String> classNames, List<JdbcType> jdbcTypes) {
+    this.columnNames = Collections.unmodifiableList(columnNames);
+    this.classNames = Collections.unmodifiableList(classNames);
+    this.jdbcTypes = Collections.unmodifiableList(jdbcTypes);
+    for (int i = 0; i < columnNames.size(); i++) {
+      final String columnName = columnNames.get(i);
+      if (columnName != null) {
+        // like ResultSet#findColumn, the first column wins when names are duplicated
+        columnIndexMap.putIfAbsent(columnName.toUpperCase(Locale.ENGLISH), i + 1);
+      }
+    }
+  }
+
+  static ResultSetMappingPlan of(MappedStatement mappedStatement, List<String> columnNames, List<String> classNames,
+      List<JdbcType> jdbcTypes) {
+    if (mappedStatement == null) {
+      return new ResultSetMappingPlan(columnNames, classNames, jdbcTypes);
+    }
+    final List<?> fingerprint = Arrays.asList(columnNames, jdbcTypes, classNames);
+    return mappedStatement.getConfiguration().getResultSetMappingPlanCache().getPlan(mappedStatement.getId(),
+        fingerprint, () -> new ResultSetMappingPlan(columnNames, classNames, jdbcTypes));
+  }
+
+}
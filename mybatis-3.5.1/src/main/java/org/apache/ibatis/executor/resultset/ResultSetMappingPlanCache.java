@@ -0,0 +1,67 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * The {@link ResultSetMappingPlan}s resolved for the statements of a configuration, keyed by statement id and by
+ * the column layout they were resolved for.
+ *
+ * @since 3.5.2
+ */
+public final class ResultSetMappingPlanCache {
+
+  /**
+   * Dynamic SQL may return many column layouts from one statement, only that many are kept.
+   */
+  private static final int MAX_PLANS_PER_STATEMENT = 32;
+
+  private final ConcurrentMap<String, ConcurrentMap<List<?>, ResultSetMappingPlan>> plans = new ConcurrentHashMap<>();
+
+  ResultSetMappingPlan getPlan(String statementId, List<?> fingerprint, Supplier<ResultSetMappingPlan> planFactory) {
+    final ConcurrentMap<List<?>, ResultSetMappingPlan> statementPlans = plans.computeIfAbsent(statementId,
+        k -> new ConcurrentHashMap<>());
+    ResultSetMappingPlan plan = statementPlans.get(fingerprint);
+    if (plan == null) {
+      plan = planFactory.get();
+      if (statementPlans.size() < MAX_PLANS_PER_STATEMENT) {
+        final ResultSetMappingPlan existing = statementPlans.putIfAbsent(fingerprint, plan);
+        if (existing != null) {
+          plan = existing;
+        }
+      }
+    }
+    return plan;
+  }
+
+  /**
+   * Returns the number of plans kept for the statement.
+   */
+  int size(String statementId) {
+    final Map<List<?>, ResultSetMappingPlan> statementPlans = plans.get(statementId);
+    return statementPlans == null ? 0 : statementPlans.size();
+  }
+
+  public void clear() {
+    plans.clear();
+  }
+
+}
@@ -15,19 +15,23 @@
  */
 package org.apache.ibatis.executor.resultset;
 
+import java.lang.reflect.Constructor;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.ObjectTypeHandler;
@@ -40,26 +44,65 @@ import org.apache.ibatis.type.UnknownTypeHandler;
  */
 public class ResultSetWrapper {
 
+  private static final String TYPE_HANDLER_PACKAGE = TypeHandler.class.getPackage().getName();
+  private static final ClassValue<Boolean> READS_BY_INDEX = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      final String className = type.getName();
+      // the unknown type handler delegates to the type handler it resolves, which may be any
+      return type != UnknownTypeHandler.class && className.lastIndexOf('.') == TYPE_HANDLER_PACKAGE.length()
+          && className.startsWith(TYPE_HANDLER_PACKAGE);
+    }
+  };
+
   private final ResultSet resultSet;
   private final TypeHandlerRegistry typeHandlerRegistry;
-  private final List<String> columnNames = new ArrayList<>();
-  private final List<String> classNames = new ArrayList<>();
-  private final List<JdbcType> jdbcTypes = new ArrayList<>();
-  private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
-  private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
-  private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final List<String> columnNames;
+  private final List<String> classNames;
+  private final List<JdbcType> jdbcTypes;
+  private final Map<String, Integer> columnIndexMap;
+  private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap;
+  private final Map<String, List<String>> mappedColumnNamesMap;
+  private final Map<String, List<String>> unMappedColumnNamesMap;
+  private final Map<String, int[]> propertyColumnIndexesMap;
+  private final ResultSetMappingPlan plan;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
+    this(rs, configuration, null);
+  }
+
+  /**
+   * Wraps a result set reusing the mapping plan cached on the statement for the same columns.
+   *
+   * @param rs
+   * @param configuration
+   * @param mappedStatement the statement caching the plans, or {@code null} to resolve a new plan
+   * @throws SQLException
+   * @since 3.5.2
+   */
+  public ResultSetWrapper(ResultSet rs, Configuration configuration, MappedStatement mappedStatement) throws SQLException {
     super();
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.resultSet = rs;
     final ResultSetMetaData metaData = rs.getMetaData();
     final int columnCount = metaData.getColumnCount();
+    final List<String> columnNames = new ArrayList<>(columnCount);
+    final List<String> classNames = new ArrayList<>(columnCount);
+    final List<JdbcType> jdbcTypes = new ArrayList<>(columnCount);
     for (int i = 1; i <= columnCount; i++) {
       columnNames.add(configuration.isUseColumnLabel() ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
       jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
       classNames.add(metaData.getColumnClassName(i));
     }
+    this.plan = ResultSetMappingPlan.of(mappedStatement, columnNames, classNames, jdbcTypes);
+    this.columnNames = plan.columnNames;
+    this.classNames = plan.classNames;
+    this.jdbcTypes = plan.jdbcTypes;
+    this.columnIndexMap = plan.columnIndexMap;
+    this.typeHandlerMap = plan.typeHandlerMap;
+    this.mappedColumnNamesMap = plan.mappedColumnNamesMap;
+    this.unMappedColumnNamesMap = plan.unMappedColumnNamesMap;
+    this.propertyColumnIndexesMap = plan.propertyColumnIndexesMap;
   }
 
   public ResultSet getResultSet() {
@@ -71,7 +114,7 @@ public class ResultSetWrapper {
   }
 
   public List<String> getClassNames() {
-    return Collections.unmodifiableList(classNames);
+    return classNames;
   }
 
   public List<JdbcType> getJdbcTypes() {
@@ -79,12 +122,52 @@ public class ResultSetWrapper {
   }
 
   public JdbcType getJdbcType(String columnName) {
-    for (int i = 0 ; i < columnNames.size(); i++) {
-      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
-        return jdbcTypes.get(i);
+    final int columnIndex = getColumnIndex(columnName);
+    return columnIndex > 0 ? jdbcTypes.get(columnIndex - 1) : null;
+  }
+
+  /**
+   * Gets the 1-based index of a column, matching its name case-insensitively.
+   *
+   * @param columnName
+   * @return the column index or 0 if the result set has no such column
+   * @since 3.5.2
+   */
+  public int getColumnIndex(String columnName) {
+    if (columnName == null) {
+      return 0;
+    }
+    final Integer columnIndex = columnIndexMap.get(columnName.toUpperCase(Locale.ENGLISH));
+    return columnIndex == null ? 0 : columnIndex;
+  }
+
+  /**
+   * Gets the column indexes of the property mappings of a result map, resolved once per result set.
+   * The array is aligned with {@link ResultMap#getPropertyResultMappings()} and holds 0 for mappings
+   * that have no column in this result set or map a nested result map.
+   *
+   * @param resultMap
+   * @param columnPrefix
+   * @return the column indexes
+   * @since 3.5.2
+   */
+  public int[] getPropertyColumnIndexes(ResultMap resultMap, String columnPrefix) {
+    final String mapKey = getMapKey(resultMap, columnPrefix);
+    int[] columnIndexes = propertyColumnIndexesMap.get(mapKey);
+    if (columnIndexes == null) {
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      columnIndexes = new int[propertyMappings.size()];
+      for (int i = 0; i < columnIndexes.length; i++) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        final String column = propertyMapping.getColumn();
+        // the user may have added a column attribute to a nested result map, ignore it
+        if (column != null && !column.isEmpty() && propertyMapping.getNestedResultMapId() == null) {
+          columnIndexes[i] = getColumnIndex(columnPrefix == null ? column : columnPrefix + column);
+        }
       }
+      propertyColumnIndexesMap.put(mapKey, columnIndexes);
     }
-    return null;
+    return columnIndexes;
   }
 
   /**
@@ -97,38 +180,58 @@ public class ResultSetWrapper {
    * @return
    */
   public TypeHandler<?> getTypeHandler(Class<?> propertyType, String columnName) {
-    TypeHandler<?> handler = null;
-    Map<Class<?>, TypeHandler<?>> columnHandlers = typeHandlerMap.get(columnName);
-    if (columnHandlers == null) {
-      columnHandlers = new HashMap<>();
-      typeHandlerMap.put(columnName, columnHandlers);
-    } else {
-      handler = columnHandlers.get(propertyType);
-    }
-    if (handler == null) {
-      JdbcType jdbcType = getJdbcType(columnName);
-      handler = typeHandlerRegistry.getTypeHandler(propertyType, jdbcType);
-      // Replicate logic of UnknownTypeHandler#resolveTypeHandler
-      // See issue #59 comment 10
-      if (handler == null || handler instanceof UnknownTypeHandler) {
-        final int index = columnNames.indexOf(columnName);
-        final Class<?> javaType = resolveClass(classNames.get(index));
-        if (javaType != null && jdbcType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
-        } else if (javaType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(javaType);
-        } else if (jdbcType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(jdbcType);
-        }
-      }
-      if (handler == null || handler instanceof UnknownTypeHandler) {
-        handler = new ObjectTypeHandler();
+    return typeHandlerMap.computeIfAbsent(columnName, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(propertyType, k -> resolveTypeHandler(propertyType, columnName));
+  }
+
+  private TypeHandler<?> resolveTypeHandler(Class<?> propertyType, String columnName) {
+    JdbcType jdbcType = getJdbcType(columnName);
+    TypeHandler<?> handler = typeHandlerRegistry.getTypeHandler(propertyType, jdbcType);
+    // Replicate logic of UnknownTypeHandler#resolveTypeHandler
+    // See issue #59 comment 10
+    if (handler == null || handler instanceof UnknownTypeHandler) {
+      final int index = getColumnIndex(columnName) - 1;
+      final Class<?> javaType = resolveClass(classNames.get(index));
+      if (javaType != null && jdbcType != null) {
+        handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
+      } else if (javaType != null) {
+        handler = typeHandlerRegistry.getTypeHandler(javaType);
+      } else if (jdbcType != null) {
+        handler = typeHandlerRegistry.getTypeHandler(jdbcType);
       }
-      columnHandlers.put(propertyType, handler);
+    }
+    if (handler == null || handler instanceof UnknownTypeHandler) {
+      handler = new ObjectTypeHandler();
     }
     return handler;
   }
 
+  /**
+   * Tells whether a type handler can be given the index of a column. Result mapping used to read every column
+   * by name, and type handlers written for it often leave reading by index unimplemented, so only the type
+   * handlers shipped with MyBatis are trusted to.
+   *
+   * @param typeHandler
+   * @return true if the type handler may read by index
+   * @since 3.5.2
+   */
+  static boolean readsByIndex(TypeHandler<?> typeHandler) {
+    return READS_BY_INDEX.get(typeHandler.getClass());
+  }
+
+  /**
+   * Adapts a type handler to be called with the index of a column, reading the column by name instead when
+   * the type handler is not trusted to read by index.
+   *
+   * @param typeHandler
+   * @param columnName the name of the column whose index will be given
+   * @return a type handler that can be given the index of the column
+   * @since 3.5.2
+   */
+  static TypeHandler<?> byIndex(TypeHandler<?> typeHandler, String columnName) {
+    return readsByIndex(typeHandler) ? typeHandler : new ByNameTypeHandler(typeHandler, columnName);
+  }
+
   private Class<?> resolveClass(String className) {
     try {
       // #699 className could be null
@@ -176,6 +279,40 @@ public class ResultSetWrapper {
     return unMappedColumnNames;
   }
 
+  List<DefaultResultSetHandler.UnMappedColumnAutoMapping> getAutoMappings(String mapKey) {
+    return plan.autoMappingsMap.get(mapKey);
+  }
+
+  void putAutoMappings(String mapKey, List<DefaultResultSetHandler.UnMappedColumnAutoMapping> autoMappings) {
+    plan.autoMappingsMap.put(mapKey, autoMappings);
+  }
+
+  FlatRowMapper getFlatRowMapper(ResultMap resultMap) {
+    return plan.flatRowMappers.get(resultMap.getId());
+  }
+
+  void putFlatRowMapper(ResultMap resultMap, FlatRowMapper flatRowMapper) {
+    plan.flatRowMappers.put(resultMap.getId(), flatRowMapper);
+  }
+
+  Constructor<?> getAutomapConstructor(Class<?> resultType) {
+    return plan.automapConstructors.get(resultType);
+  }
+
+  void putAutomapConstructor(Class<?> resultType, Constructor<?> constructor) {
+    plan.automapConstructors.put(resultType, constructor);
+  }
+
+  RowKey.Columns getRowKeyColumns(ResultMap resultMap, String columnPrefix) {
+    final Map<String, RowKey.Columns> prefixMap = plan.rowKeyColumnsMap.get(resultMap.getId());
+    return prefixMap == null ? null : prefixMap.get(columnPrefix == null ? "" : columnPrefix);
+  }
+
+  void putRowKeyColumns(ResultMap resultMap, String columnPrefix, RowKey.Columns rowKeyColumns) {
+    plan.rowKeyColumnsMap.computeIfAbsent(resultMap.getId(), id -> new ConcurrentHashMap<>())
+        .put(columnPrefix == null ? "" : columnPrefix, rowKeyColumns);
+  }
+
   private String getMapKey(ResultMap resultMap, String columnPrefix) {
     return resultMap.getId() + ":" + columnPrefix;
   }
@@ -191,4 +328,37 @@ public class ResultSetWrapper {
     return prefixed;
   }
 
+
+  private static final class ByNameTypeHandler implements TypeHandler<Object> {
+
+    private final TypeHandler<?> delegate;
+    private final String columnName;
+
+    private ByNameTypeHandler(TypeHandler<?> delegate, String columnName) {
+      this.delegate = delegate;
+      this.columnName = columnName;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setParameter(PreparedStatement ps, int i, Object parameter, JdbcType jdbcType) throws SQLException {
+      ((TypeHandler<Object>) delegate).setParameter(ps, i, parameter, jdbcType);
+    }
+
+    @Override
+    public Object getResult(ResultSet rs, String columnName) throws SQLException {
+      return delegate.getResult(rs, columnName);
+    }
+
+    @Override
+    public Object getResult(ResultSet rs, int columnIndex) throws SQLException {
+      return delegate.getResult(rs, columnName);
+    }
+
+    @Override
+    public Object getResult(CallableStatement cs, int columnIndex) throws SQLException {
+      return delegate.getResult(cs, columnIndex);
+    }
+  }
+
 }
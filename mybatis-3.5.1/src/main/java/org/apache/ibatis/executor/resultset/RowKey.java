@@ -0,0 +1,159 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import org.apache.ibatis.reflection.ArrayUtil;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Identifies the object a row maps to in a nested result map.
+ * <p>
+ * A key holds the values of the id columns of its result map by position, and links to the key of the object
+ * it is nested in instead of copying it, so combining keys does not clone anything. The hash is computed once.
+ *
+ * @since 3.5.2
+ */
+final class RowKey {
+
+  /**
+   * The key of rows without id values, which are never merged.
+   */
+  static final RowKey NULL = new RowKey("", null, new Object[0], null);
+
+  private final String resultMapId;
+  private final String columnPrefix;
+  private final Object[] values;
+  private final RowKey parent;
+  private final int hashCode;
+
+  private RowKey(String resultMapId, String columnPrefix, Object[] values, RowKey parent) {
+    this.resultMapId = resultMapId;
+    this.columnPrefix = columnPrefix;
+    this.values = values;
+    this.parent = parent;
+    int hash = resultMapId.hashCode();
+    hash = 31 * hash + Objects.hashCode(columnPrefix);
+    for (Object value : values) {
+      hash = 31 * hash + ArrayUtil.hashCode(value);
+    }
+    this.hashCode = 31 * hash + (parent == null ? 0 : parent.hashCode);
+  }
+
+  /**
+   * Combines this key with the key of the object it is nested in.
+   *
+   * @param parentKey
+   * @return the combined key, or {@link #NULL} if either key is
+   */
+  RowKey combine(RowKey parentKey) {
+    if (this == NULL || parentKey == NULL) {
+      return NULL;
+    }
+    return new RowKey(resultMapId, columnPrefix, values, parentKey);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof RowKey)) {
+      return false;
+    }
+    final RowKey other = (RowKey) object;
+    if (hashCode != other.hashCode || values.length != other.values.length || !resultMapId.equals(other.resultMapId)
+        || !Objects.equals(columnPrefix, other.columnPrefix) || !Objects.equals(parent, other.parent)) {
+      return false;
+    }
+    for (int i = 0; i < values.length; i++) {
+      if (!ArrayUtil.equals(values[i], other.values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder(resultMapId);
+    if (columnPrefix != null) {
+      builder.append('[').append(columnPrefix).append(']');
+    }
+    for (Object value : values) {
+      builder.append(':').append(ArrayUtil.toString(value));
+    }
+    if (parent != null) {
+      builder.append(" in ").append(parent);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * The id columns of a result map in a result set, resolved once per column layout.
+   */
+  static final class Columns {
+
+    private final String resultMapId;
+    private final String columnPrefix;
+    private final int[] columnIndexes;
+    private final TypeHandler<?>[] typeHandlers;
+    private final boolean nullsCount;
+
+    /**
+     * @param resultMapId
+     * @param columnPrefix
+     * @param columnIndexes the indexes of the id columns
+     * @param typeHandlers the type handlers reading them, {@code null} entries read the column as a string
+     * @param nullsCount whether null values make a key too, as with {@code returnInstanceForEmptyRow}
+     */
+    Columns(String resultMapId, String columnPrefix, int[] columnIndexes, TypeHandler<?>[] typeHandlers, boolean nullsCount) {
+      this.resultMapId = resultMapId;
+      this.columnPrefix = columnPrefix;
+      this.columnIndexes = columnIndexes;
+      this.typeHandlers = typeHandlers;
+      this.nullsCount = nullsCount && columnIndexes.length > 0;
+    }
+
+    /**
+     * Creates the key of the current row.
+     *
+     * @param rs
+     * @return the key, or {@link RowKey#NULL} if the row has no id values
+     * @throws SQLException
+     */
+    RowKey createKey(ResultSet rs) throws SQLException {
+      final Object[] values = new Object[columnIndexes.length];
+      boolean found = nullsCount;
+      for (int i = 0; i < columnIndexes.length; i++) {
+        final TypeHandler<?> typeHandler = typeHandlers[i];
+        final Object value = typeHandler == null ? rs.getString(columnIndexes[i]) : typeHandler.getResult(rs, columnIndexes[i]);
+        values[i] = value;
+        found = found || value != null;
+      }
+      return found ? new RowKey(resultMapId, columnPrefix, values, null) : NULL;
+    }
+  }
+
+}
@@ -54,7 +54,6 @@ public abstract class BaseStatementHandler implements StatementHandler {
     this.configuration = mappedStatement.getConfiguration();
     this.executor = executor;
     this.mappedStatement = mappedStatement;
-    this.rowBounds = rowBounds;
 
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.objectFactory = configuration.getObjectFactory();
@@ -64,6 +63,13 @@ public abstract class BaseStatementHandler implements StatementHandler {
       boundSql = mappedStatement.getBoundSql(parameterObject);
     }
 
+    RowBoundsPagination.PaginatedBoundSql paginatedBoundSql = RowBoundsPagination.paginate(mappedStatement, boundSql, rowBounds);
+    if (paginatedBoundSql != null) {
+      boundSql = paginatedBoundSql;
+      rowBounds = paginatedBoundSql.getRemainingRowBounds();
+    }
+
+    this.rowBounds = rowBounds;
     this.boundSql = boundSql;
 
     this.parameterHandler = configuration.newParameterHandler(mappedStatement, parameterObject, boundSql);
@@ -119,6 +125,14 @@ public abstract class BaseStatementHandler implements StatementHandler {
       stmt.setFetchSize(fetchSize);
       return;
     }
+    if (configuration.isAdaptiveFetchSize()) {
+      Integer adaptiveFetchSize = configuration.getFetchSizeStatistics().nextFetchSize(mappedStatement.getId(),
+          configuration.getMinFetchSize(), configuration.getMaxFetchSize());
+      if (adaptiveFetchSize != null) {
+        stmt.setFetchSize(adaptiveFetchSize);
+        return;
+      }
+    }
     Integer defaultFetchSize = configuration.getDefaultFetchSize();
     if (defaultFetchSize != null) {
       stmt.setFetchSize(defaultFetchSize);
@@ -0,0 +1,103 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Row counts seen per mapped statement, used to pick the fetch size of its next execution when
+ * {@code adaptiveFetchSize} is enabled.
+ * <p>
+ * The counts are kept in a histogram of power of two buckets whose weights decay with each execution, so the
+ * fetch size follows the recent behavior of a statement. The fetch size covers the 90th percentile of the
+ * recent executions, so most of them need a single round trip.
+ *
+ * @since 3.5.2
+ */
+public class FetchSizeStatistics {
+
+  private static final double DECAY = 0.95;
+  private static final double PERCENTILE = 0.9;
+
+  private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the fetch size for the next execution of the statement, between the given bounds, or null if
+   * no execution was recorded yet.
+   */
+  Integer nextFetchSize(String statementId, int minFetchSize, int maxFetchSize) {
+    Histogram histogram = histograms.get(statementId);
+    return histogram == null ? null : histogram.nextFetchSize(minFetchSize, maxFetchSize);
+  }
+
+  public void addRowCount(String statementId, int rowCount) {
+    histograms.computeIfAbsent(statementId, k -> new Histogram()).add(rowCount);
+  }
+
+  /**
+   * Returns the fetch size last applied to each statement, by statement id.
+   */
+  public Map<String, Integer> getFetchSizes() {
+    Map<String, Integer> fetchSizes = new TreeMap<>();
+    histograms.forEach((statementId, histogram) -> {
+      int fetchSize = histogram.getFetchSize();
+      if (fetchSize > 0) {
+        fetchSizes.put(statementId, fetchSize);
+      }
+    });
+    return Collections.unmodifiableMap(fetchSizes);
+  }
+
+  public void clear() {
+    histograms.clear();
+  }
+
+  private static class Histogram {
+    // bucket i holds the row counts in [2^i - 1, 2^(i+1) - 1)
+    private final double[] weights = new double[32];
+    private double total;
+    private int fetchSize;
+
+    synchronized void add(int rowCount) {
+      for (int i = 0; i < weights.length; i++) {
+        weights[i] *= DECAY;
+      }
+      weights[31 - Integer.numberOfLeadingZeros(rowCount + 1)]++;
+      total = total * DECAY + 1;
+    }
+
+    synchronized int nextFetchSize(int minFetchSize, int maxFetchSize) {
+      double threshold = total * PERCENTILE;
+      double sum = 0;
+      int bucket = 0;
+      while (bucket < weights.length - 1 && (sum += weights[bucket]) < threshold) {
+        bucket++;
+      }
+      // one more than the largest count of the bucket, so the end of the results comes with the last rows
+      long upperBound = (1L << (bucket + 1)) - 1;
+      fetchSize = (int) Math.max(minFetchSize, Math.min(maxFetchSize, upperBound));
+      return fetchSize;
+    }
+
+    synchronized int getFetchSize() {
+      return fetchSize;
+    }
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.util.Locale;
+
+/**
+ * The ways of limiting the rows of a query in SQL, used to push {@link org.apache.ibatis.session.RowBounds}
+ * down to the database.
+ *
+ * @since 3.5.2
+ */
+public enum PaginationDialect {
+
+  /**
+   * {@code LIMIT ? OFFSET ?}, as in MySQL, MariaDB, PostgreSQL, H2, HSQLDB or SQLite.
+   */
+  LIMIT_OFFSET {
+    @Override
+    String paginate(String sql, boolean limited) {
+      return sql + " LIMIT ? OFFSET ?";
+    }
+  },
+
+  /**
+   * {@code OFFSET ? ROWS FETCH NEXT ? ROWS ONLY}, as in the SQL standard, Derby, DB2 or SQL Server.
+   */
+  OFFSET_FETCH {
+    @Override
+    String paginate(String sql, boolean limited) {
+      return limited ? sql + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY" : sql + " OFFSET ? ROWS";
+    }
+  },
+
+  /**
+   * A {@code ROWNUM} filter around the query, as in Oracle. Only the end of the page is applied by the database,
+   * as skipping the offset would need a row number column in the results; the offset is still skipped by the
+   * client.
+   */
+  ROWNUM {
+    @Override
+    String paginate(String sql, boolean limited) {
+      return limited ? "SELECT * FROM (" + sql + ") page_ WHERE ROWNUM <= ?" : sql;
+    }
+  };
+
+  /**
+   * Returns the SQL returning the rows of the given one within an offset and a limit. The parameters added are,
+   * in order: LIMIT_OFFSET the limit and the offset, OFFSET_FETCH the offset and the limit if any, ROWNUM the
+   * offset plus the limit if any.
+   */
+  abstract String paginate(String sql, boolean limited);
+
+  /**
+   * Returns the dialect of a well known database, matching the database id case insensitively against vendor
+   * names, or null if the database is unknown.
+   */
+  public static PaginationDialect forDatabaseId(String databaseId) {
+    if (databaseId == null) {
+      return null;
+    }
+    String id = databaseId.toLowerCase(Locale.ENGLISH);
+    if (id.contains("mysql") || id.contains("mariadb") || id.contains("postgres") || id.contains("h2")
+        || id.contains("hsql") || id.contains("sqlite")) {
+      return LIMIT_OFFSET;
+    }
+    if (id.contains("derby") || id.contains("db2") || id.contains("sqlserver") || id.contains("sql server")) {
+      return OFFSET_FETCH;
+    }
+    if (id.contains("oracle")) {
+      return ROWNUM;
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,173 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetRowBounds;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Rewrites the SQL of a query so the database applies its row bounds, instead of the result set handler skipping
+ * and dropping rows.
+ */
+final class RowBoundsPagination {
+
+  private static final String OFFSET = "_rowBoundsOffset";
+  private static final String LIMIT = "_rowBoundsLimit";
+  private static final String END = "_rowBoundsEnd";
+  private static final String LAST_KEY = "_rowBoundsLastKey";
+
+  private RowBoundsPagination() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Returns the bound SQL applying the row bounds, or null if they are left to the result set handler.
+   */
+  static PaginatedBoundSql paginate(MappedStatement ms, BoundSql boundSql, RowBounds rowBounds) {
+    Configuration configuration = ms.getConfiguration();
+    boolean keyset = rowBounds instanceof KeysetRowBounds;
+    if (!keyset && (!configuration.isPushDownRowBounds()
+        || rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET && rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT)) {
+      return null;
+    }
+    // a limit on rows would cut the collections of nested result maps, calls cannot be wrapped in a query
+    // and plain statements do not bind the added parameters
+    if (ms.hasNestedResultMaps() || ms.getResultSets() != null || ms.getStatementType() != StatementType.PREPARED) {
+      if (keyset) {
+        throw new ExecutorException("Keyset pagination cannot be applied to '" + ms.getId()
+            + "' as it has nested result maps, multiple result sets or is not a prepared statement.");
+      }
+      return null;
+    }
+    PaginationDialect dialect = configuration.getPaginationDialect();
+    if (dialect == null) {
+      dialect = PaginationDialect.forDatabaseId(configuration.getDatabaseId());
+    }
+    if (dialect == null) {
+      if (keyset) {
+        throw new ExecutorException("Keyset pagination of '" + ms.getId()
+            + "' needs a pagination dialect. Set the paginationDialect setting or a known databaseId.");
+      }
+      return null;
+    }
+
+    String sql = boundSql.getSql();
+    List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+    Map<String, Object> parameters = new HashMap<>();
+    if (keyset) {
+      sql = seek(configuration, sql, (KeysetRowBounds) rowBounds, parameterMappings, parameters);
+    }
+    int offset = rowBounds.getOffset();
+    int limit = rowBounds.getLimit();
+    boolean limited = limit != RowBounds.NO_ROW_LIMIT;
+    sql = dialect.paginate(sql, limited);
+    RowBounds remainingRowBounds = RowBounds.DEFAULT;
+    switch (dialect) {
+      case LIMIT_OFFSET:
+        addParameter(configuration, LIMIT, limit, parameterMappings, parameters);
+        addParameter(configuration, OFFSET, offset, parameterMappings, parameters);
+        break;
+      case OFFSET_FETCH:
+        addParameter(configuration, OFFSET, offset, parameterMappings, parameters);
+        if (limited) {
+          addParameter(configuration, LIMIT, limit, parameterMappings, parameters);
+        }
+        break;
+      default:
+        if (limited) {
+          addParameter(configuration, END, (long) offset + limit, parameterMappings, parameters);
+        }
+        if (offset != RowBounds.NO_ROW_OFFSET) {
+          remainingRowBounds = new RowBounds(offset, RowBounds.NO_ROW_LIMIT);
+        }
+        break;
+    }
+    return new PaginatedBoundSql(configuration, sql, parameterMappings, boundSql, parameters, remainingRowBounds);
+  }
+
+  private static String seek(Configuration configuration, String sql, KeysetRowBounds rowBounds,
+      List<ParameterMapping> parameterMappings, Map<String, Object> parameters) {
+    String keyColumn = "keyset_." + rowBounds.getKeyColumn();
+    StringBuilder seek = new StringBuilder("SELECT * FROM (").append(sql).append(") keyset_");
+    if (rowBounds.getLastKey() != null) {
+      seek.append(" WHERE ").append(keyColumn).append(rowBounds.isDescending() ? " < ?" : " > ?");
+      addParameter(configuration, LAST_KEY, rowBounds.getLastKey(), parameterMappings, parameters);
+    }
+    seek.append(" ORDER BY ").append(keyColumn);
+    if (rowBounds.isDescending()) {
+      seek.append(" DESC");
+    }
+    return seek.toString();
+  }
+
+  private static void addParameter(Configuration configuration, String name, Object value,
+      List<ParameterMapping> parameterMappings, Map<String, Object> parameters) {
+    parameterMappings.add(new ParameterMapping.Builder(configuration, name, value.getClass()).build());
+    parameters.put(name, value);
+  }
+
+  /**
+   * Bound SQL with the pagination parameters, reading any other additional parameter from the original one.
+   */
+  static class PaginatedBoundSql extends BoundSql {
+
+    private final BoundSql original;
+    private final Map<String, Object> paginationParameters;
+    private final RowBounds remainingRowBounds;
+
+    PaginatedBoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings,
+        BoundSql original, Map<String, Object> paginationParameters, RowBounds remainingRowBounds) {
+      super(configuration, sql, parameterMappings, original.getParameterObject());
+      this.original = original;
+      this.paginationParameters = paginationParameters;
+      this.remainingRowBounds = remainingRowBounds;
+    }
+
+    /**
+     * Returns the row bounds the database does not apply, left to the result set handler.
+     */
+    RowBounds getRemainingRowBounds() {
+      return remainingRowBounds;
+    }
+
+    @Override
+    public boolean hasAdditionalParameter(String name) {
+      return paginationParameters.containsKey(name) || original.hasAdditionalParameter(name);
+    }
+
+    @Override
+    public void setAdditionalParameter(String name, Object value) {
+      original.setAdditionalParameter(name, value);
+    }
+
+    @Override
+    public Object getAdditionalParameter(String name) {
+      return paginationParameters.containsKey(name) ? paginationParameters.get(name) : original.getAdditionalParameter(name);
+    }
+  }
+
+}
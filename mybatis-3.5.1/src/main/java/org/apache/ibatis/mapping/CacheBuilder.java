@@ -24,9 +24,12 @@ import java.util.Properties;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.compression.CompressionCodec;
 import org.apache.ibatis.cache.decorators.BlockingCache;
+import org.apache.ibatis.cache.decorators.CompressedCache;
 import org.apache.ibatis.cache.decorators.LoggingCache;
 import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.NegativeResultCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
@@ -46,6 +49,10 @@ public class CacheBuilder {
   private boolean readWrite;
   private Properties properties;
   private boolean blocking;
+  private Class<? extends CompressionCodec> compression;
+  private Integer compressionThreshold;
+  private Integer negativeSize;
+  private Long negativeTimeToLive;
 
   public CacheBuilder(String id) {
     this.id = id;
@@ -84,6 +91,26 @@ public class CacheBuilder {
     return this;
   }
 
+  public CacheBuilder compression(Class<? extends CompressionCodec> compression) {
+    this.compression = compression;
+    return this;
+  }
+
+  public CacheBuilder compressionThreshold(Integer compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+    return this;
+  }
+
+  public CacheBuilder negativeSize(Integer negativeSize) {
+    this.negativeSize = negativeSize;
+    return this;
+  }
+
+  public CacheBuilder negativeTimeToLive(Long negativeTimeToLive) {
+    this.negativeTimeToLive = negativeTimeToLive;
+    return this;
+  }
+
   public CacheBuilder properties(Properties properties) {
     this.properties = properties;
     return this;
@@ -121,13 +148,30 @@ public class CacheBuilder {
       if (size != null && metaCache.hasSetter("size")) {
         metaCache.setValue("size", size);
       }
+      if (readWrite) {
+        if (compression != null) {
+          cache = new CompressedCache(cache);
+          ((CompressedCache) cache).setCodec(compression.newInstance());
+          if (compressionThreshold != null) {
+            ((CompressedCache) cache).setThreshold(compressionThreshold);
+          }
+        }
+        cache = new SerializedCache(cache);
+      }
+      if (negativeSize != null || negativeTimeToLive != null) {
+        cache = new NegativeResultCache(cache);
+        if (negativeSize != null) {
+          ((NegativeResultCache) cache).setSize(negativeSize);
+        }
+        if (negativeTimeToLive != null) {
+          ((NegativeResultCache) cache).setTimeToLive(negativeTimeToLive);
+        }
+      }
+      // clears the empty results along with the others
       if (clearInterval != null) {
         cache = new ScheduledCache(cache);
         ((ScheduledCache) cache).setClearInterval(clearInterval);
       }
-      if (readWrite) {
-        cache = new SerializedCache(cache);
-      }
       cache = new LoggingCache(cache);
       cache = new SynchronizedCache(cache);
       if (blocking) {
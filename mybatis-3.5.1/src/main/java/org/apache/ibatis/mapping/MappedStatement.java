@@ -47,6 +47,7 @@ public final class MappedStatement {
   private boolean flushCacheRequired;
   private boolean useCache;
   private boolean resultOrdered;
+  private boolean coalesce;
   private SqlCommandType sqlCommandType;
   private KeyGenerator keyGenerator;
   private String[] keyProperties;
@@ -144,6 +145,11 @@ public final class MappedStatement {
       return this;
     }
 
+    public Builder coalesce(boolean coalesce) {
+      mappedStatement.coalesce = coalesce;
+      return this;
+    }
+
     public Builder keyGenerator(KeyGenerator keyGenerator) {
       mappedStatement.keyGenerator = keyGenerator;
       return this;
@@ -261,6 +267,10 @@ public final class MappedStatement {
     return resultOrdered;
   }
 
+  public boolean isCoalesce() {
+    return coalesce;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
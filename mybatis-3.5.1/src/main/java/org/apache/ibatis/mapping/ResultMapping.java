@@ -45,6 +45,8 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private int batchSize;
+  private String batchKey;
 
   ResultMapping() {
   }
@@ -132,6 +134,16 @@ public class ResultMapping {
       return this;
     }
 
+    public Builder batchSize(int batchSize) {
+      resultMapping.batchSize = batchSize;
+      return this;
+    }
+
+    public Builder batchKey(String batchKey) {
+      resultMapping.batchKey = batchKey;
+      return this;
+    }
+
     public ResultMapping build() {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -167,6 +179,14 @@ public class ResultMapping {
           throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
         }
       }
+      if (resultMapping.batchSize > 0) {
+        if (resultMapping.nestedQueryId == null || !resultMapping.composites.isEmpty()) {
+          throw new IllegalStateException("Batch loading requires a nested select on a single column in property " + resultMapping.property);
+        }
+        if (resultMapping.batchKey == null) {
+          throw new IllegalStateException("Batch loading requires a batchKey in property " + resultMapping.property);
+        }
+      }
     }
 
     private void resolveTypeHandler() {
@@ -251,6 +271,24 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * Number of parent rows whose nested select is run as one query, or 0 if every row runs its own query.
+   *
+   * @since 3.5.2
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Property of the nested results holding the key of the parent row they belong to.
+   *
+   * @since 3.5.2
+   */
+  public String getBatchKey() {
+    return batchKey;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -298,6 +336,8 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batchSize=").append(batchSize);
+    sb.append(", batchKey='").append(batchKey).append('\'');
     sb.append('}');
     return sb.toString();
   }
@@ -16,6 +16,9 @@
 package org.apache.ibatis.reflection.factory;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -29,6 +32,8 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 import org.apache.ibatis.reflection.ReflectionException;
@@ -41,6 +46,12 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
 
   private static final long serialVersionUID = -8855120656740914948L;
 
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private static final Object[] NO_ARGS = new Object[0];
+
+  private transient ConcurrentMap<Class<?>, ConcurrentMap<List<Class<?>>, MethodHandle>> constructorHandles = new ConcurrentHashMap<>();
+
   @Override
   public <T> T create(Class<T> type) {
     return create(type, null, null);
@@ -59,40 +70,60 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
     // no props for default
   }
 
+  @SuppressWarnings("unchecked")
   private  <T> T instantiateClass(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
     try {
-      Constructor<T> constructor;
       if (constructorArgTypes == null || constructorArgs == null) {
-        constructor = type.getDeclaredConstructor();
-        try {
-          return constructor.newInstance();
-        } catch (IllegalAccessException e) {
-          if (Reflector.canControlMemberAccessible()) {
-            constructor.setAccessible(true);
-            return constructor.newInstance();
-          } else {
-            throw e;
-          }
-        }
+        return (T) (Object) getConstructorHandle(type, Collections.emptyList()).invokeExact(NO_ARGS);
+      }
+      return (T) (Object) getConstructorHandle(type, constructorArgTypes).invokeExact(constructorArgs.toArray());
+    } catch (Throwable e) {
+      if (e instanceof Error) {
+        throw (Error) e;
+      }
+      String argTypes = Optional.ofNullable(constructorArgTypes).orElseGet(Collections::emptyList)
+          .stream().map(Class::getSimpleName).collect(Collectors.joining(","));
+      String argValues = Optional.ofNullable(constructorArgs).orElseGet(Collections::emptyList)
+          .stream().map(String::valueOf).collect(Collectors.joining(","));
+      throw new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Gets the constructor of a type as a handle taking its arguments as an array, resolving it on first use.
+   */
+  private MethodHandle getConstructorHandle(Class<?> type, List<Class<?>> constructorArgTypes) throws NoSuchMethodException, IllegalAccessException {
+    if (constructorHandles == null) {
+      // not serialized
+      constructorHandles = new ConcurrentHashMap<>();
+    }
+    ConcurrentMap<List<Class<?>>, MethodHandle> handles = constructorHandles.get(type);
+    if (handles == null) {
+      handles = new ConcurrentHashMap<>();
+      ConcurrentMap<List<Class<?>>, MethodHandle> existing = constructorHandles.putIfAbsent(type, handles);
+      if (existing != null) {
+        handles = existing;
       }
-      constructor = type.getDeclaredConstructor(constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
+    }
+    MethodHandle handle = handles.get(constructorArgTypes);
+    if (handle == null) {
+      Constructor<?> constructor = type.getDeclaredConstructor(constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
+      MethodHandle unreflected;
       try {
-        return constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
+        unreflected = LOOKUP.unreflectConstructor(constructor);
       } catch (IllegalAccessException e) {
         if (Reflector.canControlMemberAccessible()) {
           constructor.setAccessible(true);
-          return constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
+          unreflected = LOOKUP.unreflectConstructor(constructor);
         } else {
           throw e;
         }
       }
-    } catch (Exception e) {
-      String argTypes = Optional.ofNullable(constructorArgTypes).orElseGet(Collections::emptyList)
-          .stream().map(Class::getSimpleName).collect(Collectors.joining(","));
-      String argValues = Optional.ofNullable(constructorArgs).orElseGet(Collections::emptyList)
-          .stream().map(String::valueOf).collect(Collectors.joining(","));
-      throw new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + e, e);
+      int parameterCount = constructor.getParameterCount();
+      handle = unreflected.asFixedArity().asType(MethodType.genericMethodType(parameterCount)).asSpreader(Object[].class, parameterCount);
+      handles.putIfAbsent(new ArrayList<>(constructorArgTypes), handle);
     }
+    return handle;
   }
 
   protected Class<?> resolveInterface(Class<?> type) {
@@ -0,0 +1,118 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link SqlSession}. Each call runs on the executor returned by
+ * {@link Configuration#getAsyncExecutor()} and completes the returned future with its result.
+ * <p>
+ * A session opened with {@link SqlSessionFactory#openAsyncSession()} runs every call in its own auto-commit
+ * {@link SqlSession}, so independent calls can run in parallel, each on its own connection.
+ * A session returned by {@link SqlSession#async()} runs its calls one at a time, in the order they were made,
+ * on the connection of that session, so they take part in its transaction.
+ *
+ * @since 3.5.2
+ */
+public interface AsyncSqlSession {
+
+  /**
+   * Retrieve a single row mapped from the statement key.
+   * @param <T> the returned object type
+   * @param statement Unique identifier matching the statement to use.
+   * @return A future completed with the mapped object
+   */
+  <T> CompletableFuture<T> selectOneAsync(String statement);
+
+  /**
+   * Retrieve a single row mapped from the statement key and parameter.
+   * @param <T> the returned object type
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @return A future completed with the mapped object
+   */
+  <T> CompletableFuture<T> selectOneAsync(String statement, Object parameter);
+
+  /**
+   * Retrieve a list of mapped objects from the statement key.
+   * @param <E> the returned list element type
+   * @param statement Unique identifier matching the statement to use.
+   * @return A future completed with the list of mapped objects
+   */
+  <E> CompletableFuture<List<E>> selectListAsync(String statement);
+
+  /**
+   * Retrieve a list of mapped objects from the statement key and parameter.
+   * @param <E> the returned list element type
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @return A future completed with the list of mapped objects
+   */
+  <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter);
+
+  /**
+   * Retrieve a list of mapped objects from the statement key and parameter, within the specified row bounds.
+   * @param <E> the returned list element type
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds Bounds to limit object retrieval
+   * @return A future completed with the list of mapped objects
+   */
+  <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter, RowBounds rowBounds);
+
+  /**
+   * Execute an insert statement with the given parameter object.
+   * @param statement Unique identifier matching the statement to execute.
+   * @param parameter A parameter object to pass to the statement.
+   * @return A future completed with the number of rows affected by the insert.
+   */
+  CompletableFuture<Integer> insertAsync(String statement, Object parameter);
+
+  /**
+   * Execute an update statement with the given parameter object.
+   * @param statement Unique identifier matching the statement to execute.
+   * @param parameter A parameter object to pass to the statement.
+   * @return A future completed with the number of rows affected by the update.
+   */
+  CompletableFuture<Integer> updateAsync(String statement, Object parameter);
+
+  /**
+   * Execute a delete statement with the given parameter object.
+   * @param statement Unique identifier matching the statement to execute.
+   * @param parameter A parameter object to pass to the statement.
+   * @return A future completed with the number of rows affected by the delete.
+   */
+  CompletableFuture<Integer> deleteAsync(String statement, Object parameter);
+
+  /**
+   * Retrieves a mapper whose methods run like the other calls of this session.
+   * Methods returning {@link CompletableFuture} return as soon as the call is submitted;
+   * other methods wait for the call to complete.
+   * @param <T> the mapper type
+   * @param type Mapper interface class
+   * @return a mapper bound to this session
+   */
+  <T> T getMapper(Class<T> type);
+
+  /**
+   * Retrieves current configuration.
+   * @return Configuration
+   */
+  Configuration getConfiguration();
+
+}
@@ -34,6 +34,8 @@ import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.compression.DeflateCodec;
+import org.apache.ibatis.cache.compression.Lz4Codec;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
@@ -45,6 +47,7 @@ import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 import org.apache.ibatis.executor.BatchExecutor;
 import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.QueryCoalescer;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
@@ -54,6 +57,9 @@ import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.resultset.ResultSetMappingPlanCache;
+import org.apache.ibatis.executor.statement.FetchSizeStatistics;
+import org.apache.ibatis.executor.statement.PaginationDialect;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.io.VFS;
@@ -121,6 +127,22 @@ public class Configuration {
   protected Set<String> lazyLoadTriggerMethods = new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString"));
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
+  protected boolean adaptiveFetchSize;
+  protected int minFetchSize = 10;
+  protected int maxFetchSize = 1000;
+  protected Integer batchFlushSize;
+  protected Long batchFlushBytes;
+  protected boolean groupBatchStatements;
+  protected boolean rewriteBatchedInserts;
+  protected int batchInsertParameterLimit = 1000;
+  protected java.util.concurrent.Executor asyncExecutor;
+  protected int maxReusedStatements = 256;
+  protected int defaultInsertChunkSize = 1000;
+  protected Integer cursorPrefetchRows;
+  protected Long cursorPrefetchBytes;
+  protected boolean pushDownRowBounds;
+  protected PaginationDialect paginationDialect;
+  protected boolean compactMapRows;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
   protected AutoMappingUnknownColumnBehavior autoMappingUnknownColumnBehavior = AutoMappingUnknownColumnBehavior.NONE;
@@ -148,6 +170,9 @@ public class Configuration {
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
   protected final TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
   protected final LanguageDriverRegistry languageRegistry = new LanguageDriverRegistry();
+  protected final QueryCoalescer queryCoalescer = new QueryCoalescer();
+  protected final FetchSizeStatistics fetchSizeStatistics = new FetchSizeStatistics();
+  protected final ResultSetMappingPlanCache resultSetMappingPlanCache = new ResultSetMappingPlanCache();
 
   protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection")
       .conflictMessageProducer((savedValue, targetValue) ->
@@ -188,6 +213,8 @@ public class Configuration {
     typeAliasRegistry.registerAlias("LRU", LruCache.class);
     typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
     typeAliasRegistry.registerAlias("WEAK", WeakCache.class);
+    typeAliasRegistry.registerAlias("LZ4", Lz4Codec.class);
+    typeAliasRegistry.registerAlias("DEFLATE", DeflateCodec.class);
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
@@ -449,6 +476,301 @@ public class Configuration {
     this.defaultFetchSize = defaultFetchSize;
   }
 
+  /**
+   * @since 3.5.2
+   */
+  public boolean isAdaptiveFetchSize() {
+    return adaptiveFetchSize;
+  }
+
+  /**
+   * Pick the fetch size of statements without an explicit one from the row counts of their recent executions,
+   * instead of using the default fetch size.
+   *
+   * @since 3.5.2
+   * @see #getFetchSizeStatistics()
+   */
+  public void setAdaptiveFetchSize(boolean adaptiveFetchSize) {
+    this.adaptiveFetchSize = adaptiveFetchSize;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public int getMinFetchSize() {
+    return minFetchSize;
+  }
+
+  /**
+   * Smallest fetch size picked by the adaptive fetch size.
+   *
+   * @since 3.5.2
+   */
+  public void setMinFetchSize(int minFetchSize) {
+    this.minFetchSize = minFetchSize;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public int getMaxFetchSize() {
+    return maxFetchSize;
+  }
+
+  /**
+   * Largest fetch size picked by the adaptive fetch size.
+   *
+   * @since 3.5.2
+   */
+  public void setMaxFetchSize(int maxFetchSize) {
+    this.maxFetchSize = maxFetchSize;
+  }
+
+  /**
+   * Row counts recorded for the adaptive fetch size, and the fetch sizes picked from them.
+   *
+   * @since 3.5.2
+   */
+  public FetchSizeStatistics getFetchSizeStatistics() {
+    return fetchSizeStatistics;
+  }
+
+  /**
+   * What result set handlers resolved from the column layouts each statement returned so far.
+   *
+   * @since 3.5.2
+   */
+  public ResultSetMappingPlanCache getResultSetMappingPlanCache() {
+    return resultSetMappingPlanCache;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public Integer getBatchFlushSize() {
+    return batchFlushSize;
+  }
+
+  /**
+   * Number of pending batched statements after which the batch executor flushes on its own. The results of each
+   * flush are returned in turn by the next explicit flush, those of automatic flushes without their parameter
+   * objects so they can be garbage collected.
+   *
+   * @since 3.5.2
+   */
+  public void setBatchFlushSize(Integer batchFlushSize) {
+    this.batchFlushSize = batchFlushSize;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public Long getBatchFlushBytes() {
+    return batchFlushBytes;
+  }
+
+  /**
+   * Estimated size in bytes of the pending batched parameters after which the batch executor flushes on its own.
+   * Results are returned as with {@link #setBatchFlushSize(Integer)}.
+   *
+   * @since 3.5.2
+   */
+  public void setBatchFlushBytes(Long batchFlushBytes) {
+    this.batchFlushBytes = batchFlushBytes;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public boolean isGroupBatchStatements() {
+    return groupBatchStatements;
+  }
+
+  /**
+   * Whether the batch executor keeps one open batch per distinct statement instead of starting a new one
+   * each time the statement changes. Batches are executed in the order their statements were first seen.
+   *
+   * @since 3.5.2
+   */
+  public void setGroupBatchStatements(boolean groupBatchStatements) {
+    this.groupBatchStatements = groupBatchStatements;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public boolean isRewriteBatchedInserts() {
+    return rewriteBatchedInserts;
+  }
+
+  /**
+   * Whether the batch executor sends runs of identical single-row {@code INSERT ... VALUES (...)} statements as
+   * multi-row {@code INSERT ... VALUES (...), (...)} statements. Statements with a selectKey are never rewritten.
+   *
+   * @since 3.5.2
+   */
+  public void setRewriteBatchedInserts(boolean rewriteBatchedInserts) {
+    this.rewriteBatchedInserts = rewriteBatchedInserts;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public int getBatchInsertParameterLimit() {
+    return batchInsertParameterLimit;
+  }
+
+  /**
+   * Maximum number of bind parameters in one rewritten multi-row insert, which bounds the number of rows per statement.
+   *
+   * @since 3.5.2
+   */
+  public void setBatchInsertParameterLimit(int batchInsertParameterLimit) {
+    this.batchInsertParameterLimit = batchInsertParameterLimit;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public java.util.concurrent.Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  /**
+   * Executor running the calls of an {@link AsyncSqlSession}, which cannot be opened without it.
+   * It also runs the producers of prefetching cursors, which otherwise get a thread of their own.
+   * As these tasks block on JDBC, a pool meant for computations such as the common fork join pool is a poor fit.
+   * Any other executor will do, e.g. one starting a virtual thread per task where the JVM provides them.
+   *
+   * @since 3.5.2
+   */
+  public void setAsyncExecutor(java.util.concurrent.Executor asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public int getMaxReusedStatements() {
+    return maxReusedStatements;
+  }
+
+  /**
+   * Maximum number of prepared statements a reuse executor keeps open, at least 1. The least recently used one is
+   * closed to make room for a new one, or once it is released if a result set or cursor still reads it.
+   *
+   * @since 3.5.2
+   */
+  public void setMaxReusedStatements(int maxReusedStatements) {
+    if (maxReusedStatements < 1) {
+      throw new IllegalArgumentException("maxReusedStatements must be at least 1, but was " + maxReusedStatements);
+    }
+    this.maxReusedStatements = maxReusedStatements;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public int getDefaultInsertChunkSize() {
+    return defaultInsertChunkSize;
+  }
+
+  /**
+   * Number of rows sent in one batch by a mapper method inserting a {@link java.util.stream.Stream} of parameters.
+   *
+   * @since 3.5.2
+   * @see SqlSession#insertAll(String, java.util.stream.Stream, int)
+   */
+  public void setDefaultInsertChunkSize(int defaultInsertChunkSize) {
+    this.defaultInsertChunkSize = defaultInsertChunkSize;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public Integer getCursorPrefetchRows() {
+    return cursorPrefetchRows;
+  }
+
+  /**
+   * Number of rows a cursor reads and maps ahead of its consumer on a separate thread. Prefetching is off
+   * unless this or {@link #setCursorPrefetchBytes(Long) cursorPrefetchBytes} is set.
+   *
+   * @since 3.5.2
+   */
+  public void setCursorPrefetchRows(Integer cursorPrefetchRows) {
+    this.cursorPrefetchRows = cursorPrefetchRows;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public Long getCursorPrefetchBytes() {
+    return cursorPrefetchBytes;
+  }
+
+  /**
+   * Estimated size in bytes of the rows a cursor reads and maps ahead of its consumer on a separate thread.
+   *
+   * @since 3.5.2
+   */
+  public void setCursorPrefetchBytes(Long cursorPrefetchBytes) {
+    this.cursorPrefetchBytes = cursorPrefetchBytes;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public boolean isPushDownRowBounds() {
+    return pushDownRowBounds;
+  }
+
+  /**
+   * Apply the offset and limit of {@link RowBounds} in the SQL of a query, instead of skipping rows on the client.
+   * Only prepared statements are rewritten, queries with nested result maps or several result sets are left as they are.
+   *
+   * @since 3.5.2
+   * @see #setPaginationDialect(PaginationDialect)
+   */
+  public void setPushDownRowBounds(boolean pushDownRowBounds) {
+    this.pushDownRowBounds = pushDownRowBounds;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public PaginationDialect getPaginationDialect() {
+    return paginationDialect;
+  }
+
+  /**
+   * How row bounds are written in SQL. When not set, the dialect is picked from the database id, and row bounds
+   * are applied on the client for databases it does not know.
+   *
+   * @since 3.5.2
+   */
+  public void setPaginationDialect(PaginationDialect paginationDialect) {
+    this.paginationDialect = paginationDialect;
+  }
+
+  /**
+   * @since 3.5.2
+   */
+  public boolean isCompactMapRows() {
+    return compactMapRows;
+  }
+
+  /**
+   * Return the rows of {@code Map} result types as read-only maps sharing their keys per result set, instead of
+   * one {@link java.util.HashMap} per row. Result maps with nested mappings still return hash maps.
+   *
+   * @since 3.5.2
+   * @see org.apache.ibatis.executor.resultset.CompactRowMap
+   */
+  public void setCompactMapRows(boolean compactMapRows) {
+    this.compactMapRows = compactMapRows;
+  }
+
   public boolean isUseColumnLabel() {
     return useColumnLabel;
   }
@@ -508,6 +830,10 @@ public class Configuration {
     return mapperRegistry;
   }
 
+  public QueryCoalescer getQueryCoalescer() {
+    return queryCoalescer;
+  }
+
   public ReflectorFactory getReflectorFactory() {
     return reflectorFactory;
   }
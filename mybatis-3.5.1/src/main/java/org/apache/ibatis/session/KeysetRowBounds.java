@@ -0,0 +1,69 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.regex.Pattern;
+
+/**
+ * Row bounds selecting the rows that follow a given key, instead of skipping an offset. The statement is wrapped
+ * so that it only returns rows whose key column is greater (or lower, when descending) than the last key seen,
+ * ordered by that column. This needs a pagination dialect, see {@link Configuration#setPaginationDialect}.
+ * <p>
+ * The key column must be a column of the statement's results. It is written into the SQL as is, so it may only
+ * be a plain identifier.
+ *
+ * @since 3.5.2
+ */
+public class KeysetRowBounds extends RowBounds {
+
+  private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+
+  private final String keyColumn;
+  private final Object lastKey;
+  private final boolean descending;
+
+  /**
+   * @param keyColumn the unique column the rows are ordered by
+   * @param lastKey the key of the last row of the previous page, or null for the first page
+   * @param limit the maximum number of rows to return
+   */
+  public KeysetRowBounds(String keyColumn, Object lastKey, int limit) {
+    this(keyColumn, lastKey, limit, false);
+  }
+
+  public KeysetRowBounds(String keyColumn, Object lastKey, int limit, boolean descending) {
+    super(NO_ROW_OFFSET, limit);
+    if (keyColumn == null || !IDENTIFIER.matcher(keyColumn).matches()) {
+      throw new IllegalArgumentException("The key column must be a plain identifier but was '" + keyColumn + "'.");
+    }
+    this.keyColumn = keyColumn;
+    this.lastKey = lastKey;
+    this.descending = descending;
+  }
+
+  public String getKeyColumn() {
+    return keyColumn;
+  }
+
+  public Object getLastKey() {
+    return lastKey;
+  }
+
+  public boolean isDescending() {
+    return descending;
+  }
+
+}
@@ -17,11 +17,15 @@ package org.apache.ibatis.session;
 
 import java.io.Closeable;
 import java.sql.Connection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
 
 /**
  * The primary Java interface for working with MyBatis.
@@ -143,6 +147,83 @@ public interface SqlSession extends Closeable {
    */
   <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
 
+  /**
+   * A Stream offers the same results as a Cursor, fetching one row each time the stream pulls an element.
+   * Close the stream, or the session, to release the statement.
+   * @param <T> the returned stream element type.
+   * @param statement Unique identifier matching the statement to use.
+   * @return Stream of mapped objects
+   * @since 3.5.2
+   */
+  default <T> Stream<T> selectStream(String statement) {
+    return this.<T>selectCursor(statement).stream();
+  }
+
+  /**
+   * A Stream offers the same results as a Cursor, fetching one row each time the stream pulls an element.
+   * Close the stream, or the session, to release the statement.
+   * @param <T> the returned stream element type.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @return Stream of mapped objects
+   * @since 3.5.2
+   */
+  default <T> Stream<T> selectStream(String statement, Object parameter) {
+    return this.<T>selectCursor(statement, parameter).stream();
+  }
+
+  /**
+   * A Stream offers the same results as a Cursor, fetching one row each time the stream pulls an element.
+   * Close the stream, or the session, to release the statement.
+   * @param <T> the returned stream element type.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds  Bounds to limit object retrieval
+   * @return Stream of mapped objects
+   * @since 3.5.2
+   */
+  default <T> Stream<T> selectStream(String statement, Object parameter, RowBounds rowBounds) {
+    return this.<T>selectCursor(statement, parameter, rowBounds).stream();
+  }
+
+  /**
+   * Reads the rows of a query column by column into primitive arrays and dictionary encoded strings,
+   * without mapping each row to an object. Result maps are not applied, columns keep their result set names.
+   * @param statement Unique identifier matching the statement to use.
+   * @return the columns of the first result set
+   * @since 3.5.2
+   */
+  default ColumnarResult selectColumns(String statement) {
+    return selectColumns(statement, null);
+  }
+
+  /**
+   * Reads the rows of a query column by column into primitive arrays and dictionary encoded strings,
+   * without mapping each row to an object. Result maps are not applied, columns keep their result set names.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @return the columns of the first result set
+   * @since 3.5.2
+   */
+  default ColumnarResult selectColumns(String statement, Object parameter) {
+    return selectColumns(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  /**
+   * Reads the rows of a query column by column into primitive arrays and dictionary encoded strings,
+   * without mapping each row to an object. Result maps are not applied, columns keep their result set names.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds  Bounds to limit object retrieval
+   * @return the columns of the first result set
+   * @since 3.5.2
+   */
+  default ColumnarResult selectColumns(String statement, Object parameter, RowBounds rowBounds) {
+    final ColumnarResultHandler handler = new ColumnarResultHandler();
+    select(statement, parameter, rowBounds, handler);
+    return handler.getResult();
+  }
+
   /**
    * Retrieve a single row mapped from the statement key and parameter
    * using a {@code ResultHandler}.
@@ -186,6 +267,54 @@ public interface SqlSession extends Closeable {
    */
   int insert(String statement, Object parameter);
 
+  /**
+   * Execute an insert statement once for every given parameter object, sending the rows in JDBC batches of
+   * {@code chunkSize}. Only one chunk is held in memory at a time, so the parameters may come from a lazily
+   * produced source of any length.
+   * <p>
+   * The default implementation calls {@link #insert(String, Object)} for every parameter and
+   * {@link #flushStatements()} after every chunk, so it only sends batches when the session batches statements.
+   * @param statement Unique identifier matching the statement to execute.
+   * @param parameters The parameter objects, one per row.
+   * @param chunkSize The number of rows sent in one batch.
+   * @return int The number of rows affected by the inserts, as reported by the driver.
+   * @since 3.5.2
+   */
+  default int insertAll(String statement, Iterable<?> parameters, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new SqlSessionException("The chunk size must be greater than zero but was " + chunkSize + ".");
+    }
+    int updateCount = 0;
+    Iterator<?> iterator = parameters.iterator();
+    while (iterator.hasNext()) {
+      for (int i = 0; i < chunkSize && iterator.hasNext(); i++) {
+        // batching sessions answer a negative placeholder, their counts come with the flush
+        updateCount += Math.max(insert(statement, iterator.next()), 0);
+      }
+      for (BatchResult batchResult : flushStatements()) {
+        for (int count : batchResult.getUpdateCounts()) {
+          updateCount += Math.max(count, 0);
+        }
+      }
+    }
+    return updateCount;
+  }
+
+  /**
+   * Execute an insert statement once for every element of the stream, sending the rows in JDBC batches of
+   * {@code chunkSize}. The stream is consumed but not closed.
+   * @param statement Unique identifier matching the statement to execute.
+   * @param parameters The parameter objects, one per row.
+   * @param chunkSize The number of rows sent in one batch.
+   * @return int The number of rows affected by the inserts, as reported by the driver.
+   * @since 3.5.2
+   * @see #insertAll(String, Iterable, int)
+   */
+  default int insertAll(String statement, Stream<?> parameters, int chunkSize) {
+    Stream<Object> stream = parameters.map(parameter -> parameter);
+    return insertAll(statement, stream::iterator, chunkSize);
+  }
+
   /**
    * Execute an update statement. The number of rows affected will be returned.
    * @param statement Unique identifier matching the statement to execute.
@@ -280,4 +409,15 @@ public interface SqlSession extends Closeable {
    * @return Connection
    */
   Connection getConnection();
+
+  /**
+   * Retrieves the asynchronous view of this session. Its calls run one at a time, in order, on this session,
+   * so they share its connection and transaction. Every call returns the same view, and this session must not be
+   * used directly while calls of the view are pending.
+   * @return an asynchronous session bound to this SqlSession
+   * @since 3.5.2
+   */
+  default AsyncSqlSession async() {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support asynchronous calls.");
+  }
 }
@@ -43,4 +43,13 @@ public interface SqlSessionFactory {
 
   Configuration getConfiguration();
 
+  /**
+   * Opens an asynchronous session whose calls each run in their own auto-commit session.
+   * @return a new asynchronous session
+   * @since 3.5.2
+   */
+  default AsyncSqlSession openAsyncSession() {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support asynchronous sessions.");
+  }
+
 }
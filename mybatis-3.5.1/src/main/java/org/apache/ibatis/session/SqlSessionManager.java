@@ -24,6 +24,7 @@ import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.stream.Stream;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
@@ -182,6 +183,11 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionFactory.getConfiguration();
   }
 
+  @Override
+  public AsyncSqlSession openAsyncSession() {
+    return sqlSessionFactory.openAsyncSession();
+  }
+
   @Override
   public <T> T selectOne(String statement) {
     return sqlSessionProxy.selectOne(statement);
@@ -262,6 +268,16 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.insert(statement, parameter);
   }
 
+  @Override
+  public int insertAll(String statement, Iterable<?> parameters, int chunkSize) {
+    return sqlSessionProxy.insertAll(statement, parameters, chunkSize);
+  }
+
+  @Override
+  public int insertAll(String statement, Stream<?> parameters, int chunkSize) {
+    return sqlSessionProxy.insertAll(statement, parameters, chunkSize);
+  }
+
   @Override
   public int update(String statement) {
     return sqlSessionProxy.update(statement);
@@ -287,6 +303,15 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return getConfiguration().getMapper(type, this);
   }
 
+  @Override
+  public AsyncSqlSession async() {
+    final SqlSession sqlSession = localSqlSession.get();
+    if (sqlSession == null) {
+      throw new SqlSessionException("Error:  Cannot run asynchronous calls.  No managed session is started.");
+    }
+    return sqlSession.async();
+  }
+
   @Override
   public Connection getConnection() {
     final SqlSession sqlSession = localSqlSession.get();
@@ -0,0 +1,189 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session.defaults;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.session.AsyncSqlSession;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * The default implementation for {@link AsyncSqlSession}.
+ * Calls run on {@link Configuration#getAsyncExecutor()}, which must be set as the calls block on JDBC.
+ * Note that a session bound to a {@link SqlSession} must not be used while that session is used directly.
+ *
+ * @since 3.5.2
+ */
+public class DefaultAsyncSqlSession implements AsyncSqlSession {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final SqlSession sqlSession;
+  private final Configuration configuration;
+  private final Executor executor;
+  private CompletableFuture<?> last = CompletableFuture.completedFuture(null);
+
+  /**
+   * Runs every call in its own auto-commit session opened from the factory.
+   */
+  public DefaultAsyncSqlSession(SqlSessionFactory sqlSessionFactory) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.sqlSession = null;
+    this.configuration = sqlSessionFactory.getConfiguration();
+    this.executor = getAsyncExecutor(configuration);
+  }
+
+  /**
+   * Runs the calls one after another on the given session.
+   */
+  public DefaultAsyncSqlSession(SqlSession sqlSession) {
+    this.sqlSessionFactory = null;
+    this.sqlSession = sqlSession;
+    this.configuration = sqlSession.getConfiguration();
+    this.executor = getAsyncExecutor(configuration);
+  }
+
+  private static Executor getAsyncExecutor(Configuration configuration) {
+    Executor executor = configuration.getAsyncExecutor();
+    if (executor == null) {
+      throw new SqlSessionException("Cannot run asynchronous calls because no asyncExecutor is configured.");
+    }
+    return executor;
+  }
+
+  @Override
+  public <T> CompletableFuture<T> selectOneAsync(String statement) {
+    return submit(session -> session.selectOne(statement));
+  }
+
+  @Override
+  public <T> CompletableFuture<T> selectOneAsync(String statement, Object parameter) {
+    return submit(session -> session.selectOne(statement, parameter));
+  }
+
+  @Override
+  public <E> CompletableFuture<List<E>> selectListAsync(String statement) {
+    return submit(session -> session.selectList(statement));
+  }
+
+  @Override
+  public <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter) {
+    return submit(session -> session.selectList(statement, parameter));
+  }
+
+  @Override
+  public <E> CompletableFuture<List<E>> selectListAsync(String statement, Object parameter, RowBounds rowBounds) {
+    return submit(session -> session.selectList(statement, parameter, rowBounds));
+  }
+
+  @Override
+  public CompletableFuture<Integer> insertAsync(String statement, Object parameter) {
+    return submit(session -> session.insert(statement, parameter));
+  }
+
+  @Override
+  public CompletableFuture<Integer> updateAsync(String statement, Object parameter) {
+    return submit(session -> session.update(statement, parameter));
+  }
+
+  @Override
+  public CompletableFuture<Integer> deleteAsync(String statement, Object parameter) {
+    return submit(session -> session.delete(statement, parameter));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T getMapper(Class<T> type) {
+    if (!configuration.hasMapper(type)) {
+      throw new BindingException("Type " + type + " is not known to the MapperRegistry.");
+    }
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new AsyncMapperProxy(type));
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return configuration;
+  }
+
+  private <T> CompletableFuture<T> submit(Function<SqlSession, T> call) {
+    if (sqlSession == null) {
+      return supply(() -> {
+        try (SqlSession session = sqlSessionFactory.openSession(true)) {
+          return call.apply(session);
+        }
+      });
+    }
+    synchronized (this) {
+      // wait for the previous call, whatever its outcome, as the session can only run one statement at a time
+      CompletableFuture<T> future = last.handle((result, e) -> null).thenCompose(ignored -> supply(() -> call.apply(sqlSession)));
+      last = future;
+      return future;
+    }
+  }
+
+  private <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+    return CompletableFuture.supplyAsync(supplier, executor);
+  }
+
+  private class AsyncMapperProxy implements InvocationHandler {
+
+    private final Class<?> mapperInterface;
+
+    AsyncMapperProxy(Class<?> mapperInterface) {
+      this.mapperInterface = mapperInterface;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (Object.class.equals(method.getDeclaringClass())) {
+        return method.invoke(this, args);
+      }
+      CompletableFuture<Object> future = submit(session -> {
+        Object mapper = session.getMapper(mapperInterface);
+        try {
+          Object result = method.invoke(mapper, args);
+          // mapper methods returning a future complete it before they return
+          return result instanceof CompletableFuture ? ((CompletableFuture<?>) result).join() : result;
+        } catch (Exception e) {
+          Throwable cause = ExceptionUtil.unwrapThrowable(e);
+          throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+        }
+      });
+      if (CompletableFuture.class.equals(method.getReturnType())) {
+        return future;
+      }
+      try {
+        return future.join();
+      } catch (CompletionException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+}
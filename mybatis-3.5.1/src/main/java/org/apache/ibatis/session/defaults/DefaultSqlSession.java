@@ -23,6 +23,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.ibatis.binding.BindingException;
 import org.apache.ibatis.cursor.Cursor;
@@ -34,6 +36,7 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.AsyncSqlSession;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -53,6 +56,7 @@ public class DefaultSqlSession implements SqlSession {
   private final boolean autoCommit;
   private boolean dirty;
   private List<Cursor<?>> cursorList;
+  private AsyncSqlSession asyncSqlSession;
 
   public DefaultSqlSession(Configuration configuration, Executor executor, boolean autoCommit) {
     this.configuration = configuration;
@@ -184,6 +188,28 @@ public class DefaultSqlSession implements SqlSession {
     return update(statement, parameter);
   }
 
+  @Override
+  public int insertAll(String statement, Iterable<?> parameters, int chunkSize) {
+    return updateAll(statement, StreamSupport.stream(parameters.spliterator(), false), chunkSize);
+  }
+
+  @Override
+  public int insertAll(String statement, Stream<?> parameters, int chunkSize) {
+    return updateAll(statement, parameters, chunkSize);
+  }
+
+  private int updateAll(String statement, Stream<?> parameters, int chunkSize) {
+    try {
+      dirty = true;
+      MappedStatement ms = configuration.getMappedStatement(statement);
+      return executor.updateAll(ms, parameters.map(this::wrapCollection).iterator(), chunkSize);
+    } catch (Exception e) {
+      throw ExceptionFactory.wrapException("Error updating database.  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
   @Override
   public int update(String statement) {
     return update(statement, null);
@@ -291,6 +317,15 @@ public class DefaultSqlSession implements SqlSession {
     return configuration.getMapper(type, this);
   }
 
+  @Override
+  public AsyncSqlSession async() {
+    // a single view, so that all asynchronous calls on this session are chained one after another
+    if (asyncSqlSession == null) {
+      asyncSqlSession = new DefaultAsyncSqlSession(this);
+    }
+    return asyncSqlSession;
+  }
+
   @Override
   public Connection getConnection() {
     try {
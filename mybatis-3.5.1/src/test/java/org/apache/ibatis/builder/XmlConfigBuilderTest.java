@@ -37,6 +37,7 @@ import org.apache.ibatis.domain.blog.mappers.NestedBlogMapper;
 import org.apache.ibatis.domain.jpetstore.Cart;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.statement.PaginationDialect;
 import org.apache.ibatis.io.JBoss6VFS;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
@@ -86,6 +87,21 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.SIMPLE);
       assertNull(config.getDefaultStatementTimeout());
       assertNull(config.getDefaultFetchSize());
+      assertThat(config.isAdaptiveFetchSize()).isFalse();
+      assertThat(config.getMinFetchSize()).isEqualTo(10);
+      assertThat(config.getMaxFetchSize()).isEqualTo(1000);
+      assertNull(config.getBatchFlushSize());
+      assertNull(config.getBatchFlushBytes());
+      assertThat(config.isGroupBatchStatements()).isFalse();
+      assertThat(config.isRewriteBatchedInserts()).isFalse();
+      assertThat(config.getBatchInsertParameterLimit()).isEqualTo(1000);
+      assertThat(config.getMaxReusedStatements()).isEqualTo(256);
+      assertThat(config.getDefaultInsertChunkSize()).isEqualTo(1000);
+      assertNull(config.getCursorPrefetchRows());
+      assertNull(config.getCursorPrefetchBytes());
+      assertThat(config.isPushDownRowBounds()).isFalse();
+      assertNull(config.getPaginationDialect());
+      assertThat(config.isCompactMapRows()).isFalse();
       assertThat(config.isMapUnderscoreToCamelCase()).isFalse();
       assertThat(config.isSafeRowBoundsEnabled()).isFalse();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.SESSION);
@@ -179,6 +195,21 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.BATCH);
       assertThat(config.getDefaultStatementTimeout()).isEqualTo(10);
       assertThat(config.getDefaultFetchSize()).isEqualTo(100);
+      assertThat(config.isAdaptiveFetchSize()).isTrue();
+      assertThat(config.getMinFetchSize()).isEqualTo(20);
+      assertThat(config.getMaxFetchSize()).isEqualTo(2000);
+      assertThat(config.getBatchFlushSize()).isEqualTo(1000);
+      assertThat(config.getBatchFlushBytes()).isEqualTo(1048576L);
+      assertThat(config.isGroupBatchStatements()).isTrue();
+      assertThat(config.isRewriteBatchedInserts()).isTrue();
+      assertThat(config.getBatchInsertParameterLimit()).isEqualTo(500);
+      assertThat(config.getMaxReusedStatements()).isEqualTo(100);
+      assertThat(config.getDefaultInsertChunkSize()).isEqualTo(500);
+      assertThat(config.getCursorPrefetchRows()).isEqualTo(200);
+      assertThat(config.getCursorPrefetchBytes()).isEqualTo(4194304L);
+      assertThat(config.isPushDownRowBounds()).isTrue();
+      assertThat(config.getPaginationDialect()).isEqualTo(PaginationDialect.LIMIT_OFFSET);
+      assertThat(config.isCompactMapRows()).isTrue();
       assertThat(config.isMapUnderscoreToCamelCase()).isTrue();
       assertThat(config.isSafeRowBoundsEnabled()).isTrue();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.STATEMENT);
@@ -18,14 +18,21 @@ package org.apache.ibatis.cache;
 import org.apache.ibatis.cache.decorators.LoggingCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.decorators.WeakCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 class BaseCacheTest {
 
@@ -52,4 +59,37 @@ class BaseCacheTest {
     assertEquals(1, caches.size());
   }
 
+  @Test
+  void shouldKeepReferenceCachesWorkingUnderConcurrentReads() throws Exception {
+    SoftCache softCache = new SoftCache(new PerpetualCache("soft"));
+    softCache.setSize(16);
+    assertConcurrentReads(softCache);
+    WeakCache weakCache = new WeakCache(new PerpetualCache("weak"));
+    weakCache.setSize(16);
+    assertConcurrentReads(weakCache);
+  }
+
+  private static void assertConcurrentReads(Cache cache) throws Exception {
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, i);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 100000; i++) {
+            Object value = cache.getObject(i % 100);
+            assertTrue(value == null || value.equals(i % 100));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
 }
@@ -0,0 +1,114 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.ibatis.cache.compression.CompressionCodec;
+import org.apache.ibatis.cache.compression.DeflateCodec;
+import org.apache.ibatis.cache.compression.Lz4Codec;
+import org.apache.ibatis.cache.decorators.CompressedCache;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.junit.jupiter.api.Test;
+
+class CompressedCacheTest {
+
+  @Test
+  void shouldRoundTripBlocksWithEveryCodec() {
+    Random random = new Random(42);
+    for (CompressionCodec codec : new CompressionCodec[] { new Lz4Codec(), new DeflateCodec() }) {
+      for (int length : new int[] { 0, 1, 12, 13, 100, 4096, 70000 }) {
+        byte[] repetitive = new byte[length];
+        byte[] noise = new byte[length];
+        for (int i = 0; i < length; i++) {
+          repetitive[i] = (byte) (i % 7);
+        }
+        random.nextBytes(noise);
+        assertArrayEquals(repetitive, codec.decompress(codec.compress(repetitive), length));
+        assertArrayEquals(noise, codec.decompress(codec.compress(noise), length));
+      }
+    }
+  }
+
+  @Test
+  void shouldStoreLargeEntriesCompressed() {
+    PerpetualCache base = new PerpetualCache("default");
+    CompressedCache compressed = new CompressedCache(base);
+    compressed.setThreshold(256);
+    Cache cache = new SerializedCache(compressed);
+    List<String> rows = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      rows.add("row number " + i);
+    }
+    cache.putObject("rows", rows);
+    assertFalse(base.getObject("rows") instanceof byte[]);
+    assertEquals(rows, cache.getObject("rows"));
+    assertTrue(compressed.getCompressionRatio() > 1.0);
+  }
+
+  @Test
+  void shouldStoreSmallEntriesAsIs() {
+    PerpetualCache base = new PerpetualCache("default");
+    CompressedCache compressed = new CompressedCache(base);
+    compressed.setThreshold(1024);
+    Cache cache = new SerializedCache(compressed);
+    cache.putObject(0, 0);
+    assertTrue(base.getObject(0) instanceof byte[]);
+    assertEquals(0, cache.getObject(0));
+    assertEquals(1.0, compressed.getCompressionRatio());
+  }
+
+  @Test
+  void shouldUseConfiguredCodec() {
+    PerpetualCache base = new PerpetualCache("default");
+    CompressedCache compressed = new CompressedCache(base);
+    compressed.setCodec(new DeflateCodec());
+    compressed.setThreshold(0);
+    byte[] value = new byte[2048];
+    Arrays.fill(value, (byte) 1);
+    compressed.putObject(0, value);
+    assertArrayEquals(value, (byte[]) compressed.getObject(0));
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    Cache cache = new SerializedCache(new CompressedCache(new PerpetualCache("default")));
+    cache.putObject(0, 0);
+    assertNotNull(cache.getObject(0));
+    cache.removeObject(0);
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    Cache cache = new SerializedCache(new CompressedCache(new PerpetualCache("default")));
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(4));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+  }
+
+}
@@ -0,0 +1,117 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.cache.decorators.NegativeResultCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+
+class NegativeResultCacheTest {
+
+  @Test
+  void shouldKeepEmptyResultsOutOfDelegate() {
+    PerpetualCache delegate = new PerpetualCache("default");
+    Cache cache = new NegativeResultCache(delegate);
+    cache.putObject(0, new ArrayList<>());
+    cache.putObject(1, Arrays.asList(1));
+    assertEquals(1, delegate.getSize());
+    assertEquals(new ArrayList<>(), cache.getObject(0));
+    assertEquals(Arrays.asList(1), cache.getObject(1));
+  }
+
+  @Test
+  void shouldShareOneImmutableEmptyList() {
+    Cache cache = new NegativeResultCache(new PerpetualCache("default"));
+    cache.putObject(0, new ArrayList<>());
+    cache.putObject(1, new ArrayList<>());
+    assertSame(cache.getObject(0), cache.getObject(1));
+    @SuppressWarnings("unchecked")
+    List<Object> empty = (List<Object>) cache.getObject(0);
+    assertThrows(UnsupportedOperationException.class, () -> empty.add("mutated"));
+  }
+
+  @Test
+  void shouldExpireEmptyResults() throws Exception {
+    NegativeResultCache cache = new NegativeResultCache(new PerpetualCache("default"));
+    cache.setTimeToLive(100);
+    cache.putObject(0, new ArrayList<>());
+    assertNotNull(cache.getObject(0));
+    Thread.sleep(200);
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEmptyResults() {
+    NegativeResultCache cache = new NegativeResultCache(new PerpetualCache("default"));
+    cache.setSize(2);
+    cache.putObject(0, new ArrayList<>());
+    cache.putObject(1, new ArrayList<>());
+    cache.getObject(0);
+    cache.putObject(2, new ArrayList<>());
+    assertNotNull(cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertNotNull(cache.getObject(2));
+  }
+
+  @Test
+  void shouldReplaceEmptyResultWithRealOne() {
+    Cache cache = new NegativeResultCache(new PerpetualCache("default"));
+    cache.putObject(0, new ArrayList<>());
+    cache.putObject(0, Arrays.asList(1));
+    assertEquals(Arrays.asList(1), cache.getObject(0));
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    Cache cache = new NegativeResultCache(new PerpetualCache("default"));
+    cache.putObject(0, new ArrayList<>());
+    assertNotNull(cache.getObject(0));
+    cache.removeObject(0);
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  void shouldClearEmptyResultsOnClearInterval() throws Exception {
+    Cache cache = new CacheBuilder("default").negativeSize(16).clearInterval(100L).build();
+    cache.putObject(0, new ArrayList<>());
+    cache.putObject(1, Arrays.asList(1));
+    assertNotNull(cache.getObject(0));
+    Thread.sleep(200);
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(1));
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    Cache cache = new NegativeResultCache(new PerpetualCache("default"));
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i % 2 == 0 ? new ArrayList<>() : Arrays.asList(i));
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(1));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(1));
+  }
+
+}
@@ -0,0 +1,111 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class CursorStreamTest {
+
+  @Test
+  void shouldFetchOnlyTheRowsPulled() {
+    CountingCursor cursor = new CountingCursor(Arrays.asList("a", "b", "c", "d", "e"));
+    try (Stream<String> stream = cursor.stream()) {
+      assertEquals(Arrays.asList("a", "b"), stream.limit(2).collect(Collectors.toList()));
+    }
+    assertEquals(2, cursor.fetched);
+    assertTrue(cursor.closed);
+  }
+
+  @Test
+  void shouldNotOpenCursorUntilPulled() {
+    CountingCursor cursor = new CountingCursor(Arrays.asList("a", "b"));
+    Stream<String> stream = cursor.stream().map(String::toUpperCase);
+    assertFalse(cursor.iterated);
+    assertEquals(Arrays.asList("A", "B"), stream.collect(Collectors.toList()));
+    assertTrue(cursor.iterated);
+  }
+
+  @Test
+  void shouldStreamNullRows() {
+    CountingCursor cursor = new CountingCursor(Arrays.asList("a", null, "c"));
+    try (Stream<String> stream = cursor.stream()) {
+      assertFalse(stream.spliterator().hasCharacteristics(Spliterator.NONNULL));
+    }
+    cursor = new CountingCursor(Arrays.asList("a", null, "c"));
+    try (Stream<String> stream = cursor.stream()) {
+      assertEquals(Arrays.asList("a", null, "c"), stream.collect(Collectors.toList()));
+    }
+  }
+
+  private static class CountingCursor implements Cursor<String> {
+    private final List<String> rows;
+    private int fetched;
+    private boolean iterated;
+    private boolean closed;
+
+    CountingCursor(List<String> rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return iterated && !closed;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return fetched == rows.size();
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return fetched - 1;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      iterated = true;
+      return new Iterator<String>() {
+        @Override
+        public boolean hasNext() {
+          return fetched < rows.size();
+        }
+
+        @Override
+        public String next() {
+          return rows.get(fetched++);
+        }
+      };
+    }
+  }
+
+}
@@ -27,6 +27,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -37,6 +38,7 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.executor.statement.FetchSizeStatistics;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultMap;
@@ -101,9 +103,49 @@ class DefaultCursorTest {
     }
   }
 
-  @SuppressWarnings("serial")
+  @Test
+  void shouldRecordRowCountOnceConsumed() throws Exception {
+    final List<Integer> rowCounts = new ArrayList<>();
+    final FetchSizeStatistics statistics = new FetchSizeStatistics() {
+      @Override
+      public void addRowCount(String statementId, int rowCount) {
+        rowCounts.add(rowCount);
+      }
+    };
+    final Configuration config = new Configuration() {
+      @Override
+      public FetchSizeStatistics getFetchSizeStatistics() {
+        return statistics;
+      }
+    };
+    config.setAdaptiveFetchSize(true);
+    final MappedStatement ms = getNestedAndOrderedMappedStatement(config);
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null,
+      RowBounds.DEFAULT);
+
+    when(rsmd.getColumnCount()).thenReturn(2);
+    doReturn("id").when(rsmd).getColumnLabel(1);
+    doReturn(Types.INTEGER).when(rsmd).getColumnType(1);
+    doReturn(Integer.class.getCanonicalName()).when(rsmd).getColumnClassName(1);
+    doReturn("role").when(rsmd).getColumnLabel(2);
+    doReturn(Types.VARCHAR).when(rsmd).getColumnType(2);
+    doReturn(String.class.getCanonicalName()).when(rsmd).getColumnClassName(2);
+
+    final ResultSetWrapper rsw = new ResultSetWrapper(rs, config);
+
+    try (DefaultCursor<?> cursor = new DefaultCursor<>(resultSetHandler, ms.getResultMaps().get(0), rsw, RowBounds.DEFAULT)) {
+      cursor.forEach(row -> assertTrue(rowCounts.isEmpty()));
+      assertTrue(cursor.isConsumed());
+    }
+    assertEquals(Collections.singletonList(1), rowCounts);
+  }
+
   private MappedStatement getNestedAndOrderedMappedStatement() {
-    final Configuration config = new Configuration();
+    return getNestedAndOrderedMappedStatement(new Configuration());
+  }
+
+  @SuppressWarnings("serial")
+  private MappedStatement getNestedAndOrderedMappedStatement(final Configuration config) {
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
 
     ResultMap nestedResultMap = new ResultMap.Builder(config, "roleMap", HashMap.class,
@@ -169,6 +211,16 @@ class DefaultCursorTest {
       return (Integer) rows.get(rowIndex).get(columnLabel);
     }
 
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+      return getString(rsmd.getColumnLabel(columnIndex));
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+      return getInt(rsmd.getColumnLabel(columnIndex));
+    }
+
     @Override
     public boolean wasNull() throws SQLException {
       throwIfClosed();
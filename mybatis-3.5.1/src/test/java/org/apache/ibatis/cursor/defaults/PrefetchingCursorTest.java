@@ -0,0 +1,201 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class PrefetchingCursorTest {
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  void shouldReturnAllRowsInOrder() throws Exception {
+    configuration.setCursorPrefetchRows(3);
+    ListCursor<Integer> delegate = new ListCursor<>(rows(10), -1);
+    try (Cursor<Integer> cursor = new PrefetchingCursor<>(delegate, configuration)) {
+      List<Integer> read = new ArrayList<>();
+      cursor.forEach(read::add);
+      assertEquals(rows(10), read);
+      assertEquals(9, cursor.getCurrentIndex());
+      assertTrue(cursor.isConsumed());
+      assertFalse(cursor.isOpen());
+    }
+    assertTrue(delegate.closed);
+  }
+
+  @Test
+  void shouldReadAtMostTheConfiguredRowsAhead() throws Exception {
+    configuration.setCursorPrefetchRows(2);
+    AtomicInteger returned = new AtomicInteger();
+    AtomicInteger maxAhead = new AtomicInteger();
+    ListCursor<Integer> delegate = new ListCursor<Integer>(rows(20), -1) {
+      @Override
+      void onRead(int count) {
+        maxAhead.accumulateAndGet(count - returned.get(), Math::max);
+      }
+    };
+    try (Cursor<Integer> cursor = new PrefetchingCursor<>(delegate, configuration)) {
+      for (Integer row : cursor) {
+        returned.incrementAndGet();
+        Thread.sleep(2);
+      }
+    }
+    // the buffered rows, the one the producer waits to add and the one being handed to the consumer
+    assertTrue(maxAhead.get() <= 4, "read " + maxAhead.get() + " rows ahead");
+  }
+
+  @Test
+  void shouldReadAtMostTheConfiguredBytesAhead() throws Exception {
+    configuration.setCursorPrefetchBytes(500L);
+    AtomicInteger returned = new AtomicInteger();
+    AtomicInteger maxAhead = new AtomicInteger();
+    List<String> rows = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      rows.add(String.format("%0100d", i));
+    }
+    ListCursor<String> delegate = new ListCursor<String>(rows, -1) {
+      @Override
+      void onRead(int count) {
+        maxAhead.accumulateAndGet(count - returned.get(), Math::max);
+      }
+    };
+    try (Cursor<String> cursor = new PrefetchingCursor<>(delegate, configuration)) {
+      for (String row : cursor) {
+        returned.incrementAndGet();
+        Thread.sleep(2);
+      }
+    }
+    // 240 bytes per row, so three rows fill the buffer
+    assertTrue(maxAhead.get() <= 5, "read " + maxAhead.get() + " rows ahead");
+  }
+
+  @Test
+  void shouldThrowFailureAfterPrecedingRows() throws Exception {
+    configuration.setCursorPrefetchRows(5);
+    ListCursor<Integer> delegate = new ListCursor<>(rows(10), 4);
+    try (Cursor<Integer> cursor = new PrefetchingCursor<>(delegate, configuration)) {
+      Iterator<Integer> iterator = cursor.iterator();
+      for (int i = 0; i < 4; i++) {
+        assertEquals(i, (int) iterator.next());
+      }
+      PersistenceException e = assertThrows(PersistenceException.class, iterator::hasNext);
+      assertEquals("row 4", e.getCause().getMessage());
+      assertFalse(cursor.isConsumed());
+    }
+    assertTrue(delegate.closed);
+  }
+
+  @Test
+  void shouldStopProducerOnClose() throws Exception {
+    configuration.setCursorPrefetchRows(1);
+    ListCursor<Integer> delegate = new ListCursor<>(rows(100), -1);
+    Cursor<Integer> cursor = new PrefetchingCursor<>(delegate, configuration);
+    Iterator<Integer> iterator = cursor.iterator();
+    assertEquals(0, (int) iterator.next());
+    cursor.close();
+    assertTrue(delegate.closed);
+    assertTrue(delegate.read < 100);
+    assertFalse(iterator.hasNext());
+    assertFalse(cursor.isOpen());
+  }
+
+  @Test
+  void shouldCloseDelegateWhenNotIterated() throws Exception {
+    configuration.setCursorPrefetchRows(1);
+    ListCursor<Integer> delegate = new ListCursor<>(rows(3), -1);
+    Cursor<Integer> cursor = new PrefetchingCursor<>(delegate, configuration);
+    cursor.close();
+    assertTrue(delegate.closed);
+    assertThrows(IllegalStateException.class, cursor::iterator);
+  }
+
+  private static List<Integer> rows(int count) {
+    List<Integer> rows = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      rows.add(i);
+    }
+    return rows;
+  }
+
+  private static class ListCursor<T> implements Cursor<T> {
+    private final List<T> rows;
+    private final int failAt;
+    private volatile boolean closed;
+    private volatile int read;
+
+    ListCursor(List<T> rows, int failAt) {
+      this.rows = rows;
+      this.failAt = failAt;
+    }
+
+    void onRead(int count) {
+    }
+
+    @Override
+    public boolean isOpen() {
+      return !closed;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return read == rows.size();
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return read - 1;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<T>() {
+        @Override
+        public boolean hasNext() {
+          if (read == failAt) {
+            throw new IllegalStateException("row " + read);
+          }
+          return !closed && read < rows.size();
+        }
+
+        @Override
+        public T next() {
+          T row = rows.get(read++);
+          onRead(read);
+          return row;
+        }
+      };
+    }
+  }
+
+}
@@ -0,0 +1,133 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  void shouldRepeatValuesRow() {
+    MappedStatement ms = insert("insert into users (id, name) values (?, ?)", 2);
+    MultiRowInsert insert = MultiRowInsert.of(ms, ms.getBoundSql(null), 100);
+    assertNotNull(insert);
+    insert.add(ms.getBoundSql(null), 1);
+    assertEquals("insert into users (id, name) values (?, ?)", insert.getSql());
+    insert.add(ms.getBoundSql(null), 2);
+    insert.add(ms.getBoundSql(null), 3);
+    assertEquals("insert into users (id, name) values (?, ?), (?, ?), (?, ?)", insert.getSql());
+  }
+
+  @Test
+  void shouldBoundRowsByParameterLimit() {
+    MappedStatement ms = insert("INSERT INTO users VALUES (?, ?, ?)", 3);
+    MultiRowInsert insert = MultiRowInsert.of(ms, ms.getBoundSql(null), 10);
+    insert.add(ms.getBoundSql(null), 1);
+    insert.add(ms.getBoundSql(null), 2);
+    assertFalse(insert.isFull());
+    insert.add(ms.getBoundSql(null), 3);
+    assertTrue(insert.isFull());
+  }
+
+  @Test
+  void shouldKeepNestedParenthesesAndLiterals() {
+    MappedStatement ms = insert("insert into users (id, name) values (?, coalesce(?, 'a(?)'))", 2);
+    MultiRowInsert insert = MultiRowInsert.of(ms, ms.getBoundSql(null), 100);
+    insert.add(ms.getBoundSql(null), 1);
+    insert.add(ms.getBoundSql(null), 2);
+    assertEquals("insert into users (id, name) values (?, coalesce(?, 'a(?)')), (?, coalesce(?, 'a(?)'))",
+        insert.getSql());
+  }
+
+  @Test
+  void shouldBindEachRowAfterThePreviousOne() throws Exception {
+    MappedStatement ms = insert("insert into users (id, name) values (?, ?)", 2);
+    MultiRowInsert insert = MultiRowInsert.of(ms, ms.getBoundSql(null), 100);
+    for (int i = 1; i <= 3; i++) {
+      insert.add(ms.getBoundSql(i), i);
+    }
+    List<String> calls = new ArrayList<>();
+    PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+          calls.add(method.getName() + Arrays.toString(args));
+          return null;
+        });
+    insert.parameterize(ps);
+    assertEquals(Arrays.asList("setInt[1, 1]", "setInt[2, 1]", "setInt[3, 2]", "setInt[4, 2]", "setInt[5, 3]",
+        "setInt[6, 3]"), calls);
+  }
+
+  @Test
+  void shouldNotRewriteOtherStatements() {
+    assertNotRewritten(insert("insert into users (id, name) select id, name from people where id = ?", 1));
+    assertNotRewritten(insert("insert into users (id, name) values (?, ?), (?, ?)", 4));
+    assertNotRewritten(insert("insert into users (id, name) values (?, ?) on conflict do nothing", 2));
+    assertNotRewritten(insert("insert into users (id, name) values (?, '?')", 2));
+    assertNotRewritten(statement("update users set name = ? where id = ?", 2, SqlCommandType.UPDATE));
+  }
+
+  @Test
+  void shouldNotRewriteStatementsWithSelectKey() {
+    MappedStatement ms = new MappedStatement.Builder(configuration, "insert",
+        new StaticSqlSource(configuration, "insert into users (id, name) values (?, ?)", mappings(2)),
+        SqlCommandType.INSERT)
+        .keyGenerator(new SelectKeyGenerator(insert("select 1", 0), true))
+        .build();
+    assertNotRewritten(ms);
+  }
+
+  private void assertNotRewritten(MappedStatement ms) {
+    assertNull(MultiRowInsert.of(ms, ms.getBoundSql(null), 100));
+  }
+
+  private MappedStatement insert(String sql, int parameters) {
+    return statement(sql, parameters, SqlCommandType.INSERT);
+  }
+
+  private MappedStatement statement(String sql, int parameters, SqlCommandType sqlCommandType) {
+    return new MappedStatement.Builder(configuration, "statement",
+        new StaticSqlSource(configuration, sql, mappings(parameters)), sqlCommandType).build();
+  }
+
+  private List<ParameterMapping> mappings(int parameters) {
+    List<ParameterMapping> mappings = new ArrayList<>();
+    for (int i = 0; i < parameters; i++) {
+      mappings.add(new ParameterMapping.Builder(configuration, "p" + i, Object.class).build());
+    }
+    return mappings;
+  }
+
+}
@@ -0,0 +1,61 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class ObjectSizeEstimatorTest {
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  void shouldCountStringsAndBytesByLength() {
+    assertEquals(40 + 2 * 5, ObjectSizeEstimator.estimateSize(configuration, "hello"));
+    assertEquals(16 + 100, ObjectSizeEstimator.estimateSize(configuration, new byte[100]));
+    assertEquals(16, ObjectSizeEstimator.estimateSize(configuration, 42L));
+    assertEquals(16, ObjectSizeEstimator.estimateSize(configuration, null));
+  }
+
+  @Test
+  void shouldCountBeanProperties() {
+    Author author = new Author(1, "jim", "secret", "jim@example.com", null, null);
+    long size = ObjectSizeEstimator.estimateSize(configuration, author);
+    // the strings at least
+    assertTrue(size >= 3 * 40 + 2 * ("jim".length() + "secret".length() + "jim@example.com".length()));
+  }
+
+  @Test
+  void shouldCountBeansOfParameterMapsOnce() {
+    Author author = new Author(1, "jim", "secret", "jim@example.com", null, null);
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("author", author);
+    parameters.put("param1", author);
+    long beanSize = ObjectSizeEstimator.estimateSize(configuration, author);
+    assertEquals(16 + beanSize, ObjectSizeEstimator.estimateSize(configuration, parameters));
+    assertEquals(16 + 2 * beanSize,
+        ObjectSizeEstimator.estimateSize(configuration, Arrays.asList(author, new Author(1, "jim", "secret", "jim@example.com", null, null))));
+  }
+
+}
@@ -0,0 +1,268 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class QueryCoalescerTest {
+
+  @Test
+  void shouldShareOneExecutionBetweenConcurrentCallers() throws Exception {
+    CountDownLatch joined = new CountDownLatch(7);
+    QueryCoalescer coalescer = new CountingCoalescer(joined);
+    AtomicInteger executions = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<List<Integer>>> futures = new ArrayList<>();
+      futures.add(executor.submit(() -> coalescer.execute(new CacheKey(new Object[] { "hot", 1 }), () -> {
+        executions.incrementAndGet();
+        started.countDown();
+        await(release);
+        return new ArrayList<>(Arrays.asList(1, 2, 3));
+      })));
+      await(started);
+      for (int i = 0; i < 7; i++) {
+        futures.add(executor.submit(() -> coalescer.execute(new CacheKey(new Object[] { "hot", 1 }), () -> {
+          executions.incrementAndGet();
+          return new ArrayList<>(Arrays.asList(1, 2, 3));
+        })));
+      }
+      assertTrue(joined.await(10, TimeUnit.SECONDS));
+      release.countDown();
+      List<List<Integer>> results = new ArrayList<>();
+      for (Future<List<Integer>> future : futures) {
+        results.add(future.get());
+      }
+      assertEquals(1, executions.get());
+      for (List<Integer> result : results) {
+        assertEquals(Arrays.asList(1, 2, 3), result);
+      }
+      results.get(0).clear();
+      assertEquals(Arrays.asList(1, 2, 3), results.get(1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldHandEachCallerItsOwnResultObjects() throws Exception {
+    CountDownLatch joined = new CountDownLatch(1);
+    QueryCoalescer coalescer = new CountingCoalescer(joined);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<List<StringBuilder>> leader = executor.submit(() -> coalescer.execute(new CacheKey(new Object[] { "hot" }), () -> {
+        started.countDown();
+        await(release);
+        return Arrays.asList(new StringBuilder("row"));
+      }));
+      await(started);
+      Future<List<StringBuilder>> follower = executor.submit(() -> coalescer.execute(new CacheKey(new Object[] { "hot" }),
+          () -> Arrays.asList(new StringBuilder("not coalesced"))));
+      assertTrue(joined.await(10, TimeUnit.SECONDS));
+      release.countDown();
+      leader.get().get(0).append(" modified");
+      assertEquals("row", follower.get().get(0).toString());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldRunTheQueryAgainWhenResultsCannotBeCopied() throws Exception {
+    CountDownLatch joined = new CountDownLatch(1);
+    QueryCoalescer coalescer = new CountingCoalescer(joined);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Object leaderRow = new Object();
+      Object followerRow = new Object();
+      Future<List<Object>> leader = executor.submit(() -> coalescer.execute(new CacheKey(new Object[] { "hot" }), () -> {
+        started.countDown();
+        await(release);
+        return Arrays.asList(leaderRow);
+      }));
+      await(started);
+      Future<List<Object>> follower = executor.submit(() -> coalescer.execute(new CacheKey(new Object[] { "hot" }),
+          () -> Arrays.asList(followerRow)));
+      assertTrue(joined.await(10, TimeUnit.SECONDS));
+      release.countDown();
+      assertSame(leaderRow, leader.get().get(0));
+      assertSame(followerRow, follower.get().get(0));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldNotKeepResultsOnceCompleted() throws Exception {
+    QueryCoalescer coalescer = new QueryCoalescer();
+    AtomicInteger executions = new AtomicInteger();
+    CacheKey key = new CacheKey(new Object[] { "hot", 1 });
+    coalescer.execute(key, () -> Arrays.asList(executions.incrementAndGet()));
+    List<Integer> second = coalescer.execute(key, () -> Arrays.asList(executions.incrementAndGet()));
+    assertEquals(Arrays.asList(2), second);
+  }
+
+  @Test
+  void shouldPropagateFailureToEveryCaller() throws Exception {
+    CountDownLatch joined = new CountDownLatch(3);
+    QueryCoalescer coalescer = new CountingCoalescer(joined);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<Object>>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(executor.submit(() -> coalescer.execute(new CacheKey(new Object[] { "broken" }), () -> {
+          started.countDown();
+          await(release);
+          throw new SQLException("boom");
+        })));
+        if (i == 0) {
+          await(started);
+        }
+      }
+      assertTrue(joined.await(10, TimeUnit.SECONDS));
+      release.countDown();
+      for (Future<List<Object>> future : futures) {
+        try {
+          future.get();
+          fail("Should have failed");
+        } catch (ExecutionException e) {
+          assertTrue(e.getCause() instanceof SQLException);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldNotCoalesceWhileASessionHasUncommittedWrites() throws Exception {
+    Configuration configuration = new Configuration();
+    MappedStatement ms = new MappedStatement.Builder(configuration, "selectHot",
+        new StaticSqlSource(configuration, "select * from hot"), SqlCommandType.SELECT).coalesce(true).build();
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executions = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<List<Object>> leader = executor.submit(() -> new StubExecutor(configuration, () -> {
+        executions.incrementAndGet();
+        await(release);
+        return Arrays.asList("committed");
+      }).query(ms, null, RowBounds.DEFAULT, null));
+      while (executions.get() == 0) {
+        Thread.sleep(10);
+      }
+      StubExecutor writer = new StubExecutor(configuration, () -> {
+        executions.incrementAndGet();
+        return Arrays.asList("uncommitted");
+      });
+      writer.update(ms, null);
+      Future<List<Object>> read = executor.submit(() -> writer.query(ms, null, RowBounds.DEFAULT, null));
+      assertEquals(Arrays.asList("uncommitted"), read.get(10, TimeUnit.SECONDS));
+      assertEquals(2, executions.get());
+      release.countDown();
+      assertEquals(Arrays.asList("committed"), leader.get());
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  private static class CountingCoalescer extends QueryCoalescer {
+
+    private final CountDownLatch joined;
+
+    CountingCoalescer(CountDownLatch joined) {
+      this.joined = joined;
+    }
+
+    @Override
+    void followerJoined(CacheKey key) {
+      joined.countDown();
+    }
+  }
+
+  private static class StubExecutor extends BaseExecutor {
+
+    private final QueryCoalescer.Query<Object> query;
+
+    StubExecutor(Configuration configuration, QueryCoalescer.Query<Object> query) {
+      super(configuration, null);
+      this.query = query;
+    }
+
+    @Override
+    protected int doUpdate(MappedStatement ms, Object parameter) {
+      return 1;
+    }
+
+    @Override
+    protected List<BatchResult> doFlushStatements(boolean isRollback) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <E> List<E> doQuery(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+      return (List<E>) query.execute();
+    }
+
+    @Override
+    protected <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
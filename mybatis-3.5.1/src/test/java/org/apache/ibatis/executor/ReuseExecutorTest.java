@@ -15,7 +15,28 @@
  */
 package org.apache.ibatis.executor;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 import org.junit.jupiter.api.Test;
 
 class ReuseExecutorTest extends BaseExecutorTest {
@@ -30,8 +51,131 @@ class ReuseExecutorTest extends BaseExecutorTest {
     super.shouldFetchPostWithBlogWithCompositeKey();
   }
 
+  @Test
+  void shouldKeepStatementsAcrossCommits() throws Exception {
+    PrepareCounter counter = new PrepareCounter();
+    config.addInterceptor(counter);
+    Executor executor = createExecutor(newTransaction());
+    try {
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      executor.commit(true);
+      executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      assertEquals(1, counter.count);
+    } finally {
+      executor.close(false);
+    }
+  }
+
+  @Test
+  void shouldCloseStatementsOnRollback() throws Exception {
+    PrepareCounter counter = new PrepareCounter();
+    config.addInterceptor(counter);
+    Executor executor = createExecutor(newTransaction());
+    try {
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      executor.rollback(true);
+      executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      assertEquals(2, counter.count);
+    } finally {
+      executor.close(false);
+    }
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedStatement() throws Exception {
+    PrepareCounter counter = new PrepareCounter();
+    config.addInterceptor(counter);
+    config.setLocalCacheScope(LocalCacheScope.STATEMENT);
+    config.setMaxReusedStatements(1);
+    Executor executor = createExecutor(newTransaction());
+    try {
+      MappedStatement selectOne = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      MappedStatement selectAll = ExecutorTestHelper.prepareSelectAllAuthorsAutoMappedStatement(config);
+      executor.query(selectOne, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      executor.query(selectAll, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      executor.query(selectOne, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      assertEquals(3, counter.count);
+    } finally {
+      executor.close(false);
+    }
+  }
+
+  @Test
+  void shouldKeepEvictedStatementOpenWhileItsResultsAreHandled() throws Exception {
+    config.setLocalCacheScope(LocalCacheScope.STATEMENT);
+    config.setMaxReusedStatements(1);
+    Executor executor = createExecutor(newTransaction());
+    try {
+      MappedStatement selectOne = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      MappedStatement selectAll = ExecutorTestHelper.prepareSelectAllAuthorsAutoMappedStatement(config);
+      List<Object> handled = new ArrayList<>();
+      executor.query(selectAll, null, RowBounds.DEFAULT, context -> {
+        handled.add(context.getResultObject());
+        try {
+          // evicts the statement whose rows are being handled
+          executor.query(selectOne, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        } catch (SQLException e) {
+          throw new RuntimeException(e);
+        }
+      });
+      assertEquals(2, handled.size());
+    } finally {
+      executor.close(false);
+    }
+  }
+
+  @Test
+  void shouldKeepEvictedStatementOpenUntilItsCursorIsClosed() throws Exception {
+    config.setLocalCacheScope(LocalCacheScope.STATEMENT);
+    config.setMaxReusedStatements(1);
+    Executor executor = createExecutor(newTransaction());
+    try {
+      MappedStatement selectOne = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      MappedStatement selectAll = ExecutorTestHelper.prepareSelectAllAuthorsAutoMappedStatement(config);
+      try (Cursor<Object> cursor = executor.queryCursor(selectAll, null, RowBounds.DEFAULT)) {
+        executor.query(selectOne, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        List<Object> authors = new ArrayList<>();
+        cursor.forEach(authors::add);
+        assertEquals(2, authors.size());
+      }
+    } finally {
+      executor.close(false);
+    }
+  }
+
+  @Test
+  void shouldRejectKeepingNoStatements() {
+    assertThrows(IllegalArgumentException.class, () -> config.setMaxReusedStatements(0));
+  }
+
   @Override
   protected Executor createExecutor(Transaction transaction) {
     return new ReuseExecutor(config,transaction);
   }
+
+  private static Transaction newTransaction() throws Exception {
+    return new JdbcTransaction(BaseDataTest.createUnpooledDataSource(BLOG_PROPERTIES), null, false);
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+  private static class PrepareCounter implements Interceptor {
+    private int count;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      count++;
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+  }
 }
@@ -17,6 +17,8 @@ package org.apache.ibatis.executor.loader;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.ByteArrayInputStream;
@@ -176,6 +178,50 @@ public abstract class SerializableProxyTest {
     assertEquals(999, author2.getId());
   }
 
+  @Test
+  void shouldReuseTheProxyClassOfATargetType() {
+    Object proxy = proxyFactory.createProxy(author, new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), new ArrayList<>(), new ArrayList<>());
+    Object proxy2 = proxyFactory.createProxy(new Author(), new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), new ArrayList<>(), new ArrayList<>());
+    assertSame(proxy.getClass(), proxy2.getClass());
+    assertEquals(author, proxy);
+  }
+
+  @Test
+  void shouldReuseTheProxyClassOfATargetTypeWithoutDefaultConstructor() {
+    AuthorWithoutDefaultConstructor author = new AuthorWithoutDefaultConstructor(999, "someone", "!@#@!#!@#", "someone@somewhere.com", "blah", Section.NEWS);
+    ArrayList<Class<?>> argTypes = new ArrayList<>();
+    argTypes.add(Integer.class);
+    argTypes.add(String.class);
+    argTypes.add(String.class);
+    argTypes.add(String.class);
+    argTypes.add(String.class);
+    argTypes.add(Section.class);
+    ArrayList<Object> argValues = new ArrayList<>();
+    argValues.add(999);
+    argValues.add("someone");
+    argValues.add("!@#@!#!@#");
+    argValues.add("someone@somewhere.com");
+    argValues.add("blah");
+    argValues.add(Section.NEWS);
+    Object proxy = proxyFactory.createProxy(author, new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), argTypes, argValues);
+    Object proxy2 = proxyFactory.createProxy(author, new ResultLoaderMap(), new Configuration(), new DefaultObjectFactory(), argTypes, argValues);
+    assertSame(proxy.getClass(), proxy2.getClass());
+    assertEquals(author, proxy2);
+  }
+
+  @Test
+  void shouldKeepInterceptingUntilAllPropertiesAreLoaded() {
+    ResultLoaderMap loader = new ResultLoaderMap();
+    loader.addLoader("id", null, null);
+    Author proxy = (Author) proxyFactory.createProxy(author, loader, new Configuration(), new DefaultObjectFactory(), new ArrayList<>(), new ArrayList<>());
+    assertFalse(loader.isAllLoaded());
+    proxy.getBio();
+    assertFalse(loader.isAllLoaded());
+    proxy.setId(1000);
+    assertTrue(loader.isAllLoaded());
+    assertEquals(1000, proxy.getId());
+  }
+
   byte[] serialize(Serializable value) throws Exception {
     try(ByteArrayOutputStream bos = new ByteArrayOutputStream();
         ObjectOutputStream oos = new ObjectOutputStream(bos)) {
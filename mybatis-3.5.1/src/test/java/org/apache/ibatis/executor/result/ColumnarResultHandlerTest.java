@@ -0,0 +1,137 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.domain.misc.RichType;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.ColumnarResult.ColumnType;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultHandlerTest {
+
+  @Test
+  void shouldCollectMappedMapRowsByColumn() {
+    ColumnarResultHandler handler = new ColumnarResultHandler();
+    DefaultResultContext<Object> context = new DefaultResultContext<>();
+    context.nextResultObject(row(1L, 3, 2.5, "north", new BigDecimal("10.10")));
+    handler.handleResult(context);
+    context.nextResultObject(row(2L, null, 4.0, "south", null));
+    handler.handleResult(context);
+    context.nextResultObject(row(3L, 7, null, "north", new BigDecimal("30.30")));
+    handler.handleResult(context);
+
+    ColumnarResult result = handler.getResult();
+    assertEquals(3, result.getRowCount());
+    assertArrayEquals(new long[] { 1, 2, 3 }, result.getLongs("ID"));
+    assertArrayEquals(new int[] { 3, 0, 7 }, result.getInts("QUANTITY"));
+    assertTrue(result.getColumn("QUANTITY").isNull(1));
+    assertArrayEquals(new double[] { 2.5, 4.0, 0 }, result.getDoubles("PRICE"));
+    assertTrue(result.getColumn("PRICE").isNull(2));
+    assertArrayEquals(new String[] { "north", "south", "north" }, result.getStrings("REGION"));
+    assertEquals(2, result.getColumn("REGION").getDictionary().size());
+    assertArrayEquals(new Object[] { new BigDecimal("10.10"), null, new BigDecimal("30.30") }, result.getObjects("AMOUNT"));
+  }
+
+  @Test
+  void shouldFillColumnsMissingFromSomeRows() {
+    ColumnarResultHandler handler = new ColumnarResultHandler();
+    DefaultResultContext<Object> context = new DefaultResultContext<>();
+    Map<String, Object> first = new HashMap<>();
+    first.put("ID", 1);
+    context.nextResultObject(first);
+    handler.handleResult(context);
+    Map<String, Object> second = new HashMap<>();
+    second.put("NAME", "two");
+    context.nextResultObject(second);
+    handler.handleResult(context);
+    context.nextResultObject(first);
+    handler.handleResult(context);
+
+    ColumnarResult result = handler.getResult();
+    assertEquals(3, result.getRowCount());
+    assertArrayEquals(new int[] { 1, 0, 1 }, result.getInts("ID"));
+    assertTrue(result.getColumn("ID").isNull(1));
+    assertArrayEquals(new String[] { null, "two", null }, result.getStrings("NAME"));
+  }
+
+  @Test
+  void shouldFallBackToObjectsForMixedValueTypes() {
+    ColumnarResultHandler handler = new ColumnarResultHandler();
+    DefaultResultContext<Object> context = new DefaultResultContext<>();
+    context.nextResultObject(row(1L, 1, 1.0, "a", null));
+    handler.handleResult(context);
+    Map<String, Object> row = row(2L, 2, 2.0, "b", null);
+    row.put("ID", "two");
+    context.nextResultObject(row);
+    handler.handleResult(context);
+
+    ColumnarResult result = handler.getResult();
+    assertEquals(ColumnType.OBJECT, result.getColumn("ID").getType());
+    assertArrayEquals(new Object[] { 1L, "two" }, result.getObjects("ID"));
+    assertEquals(ColumnType.OBJECT, result.getColumn("AMOUNT").getType());
+  }
+
+  @Test
+  void shouldCollectBeanProperties() {
+    ColumnarResultHandler handler = new ColumnarResultHandler();
+    DefaultResultContext<Object> context = new DefaultResultContext<>();
+    RichType bean = new RichType();
+    bean.setRichProperty("rich");
+    context.nextResultObject(bean);
+    handler.handleResult(context);
+
+    ColumnarResult result = handler.getResult();
+    assertEquals(1, result.getRowCount());
+    assertArrayEquals(new String[] { "rich" }, result.getStrings("richProperty"));
+    assertFalse(result.getColumn("richProperty").isNull(0));
+  }
+
+  @Test
+  void shouldRejectScalarRows() {
+    ColumnarResultHandler handler = new ColumnarResultHandler();
+    DefaultResultContext<Object> context = new DefaultResultContext<>();
+    context.nextResultObject(1L);
+    assertThrows(ExecutorException.class, () -> handler.handleResult(context));
+  }
+
+  @Test
+  void shouldReturnNoColumnsWithoutRows() {
+    ColumnarResult result = new ColumnarResultHandler().getResult();
+    assertEquals(0, result.getRowCount());
+    assertTrue(result.getColumnNames().isEmpty());
+  }
+
+  private Map<String, Object> row(Long id, Integer quantity, Double price, String region, BigDecimal amount) {
+    Map<String, Object> row = new HashMap<>();
+    row.put("ID", id);
+    row.put("QUANTITY", quantity);
+    row.put("PRICE", price);
+    row.put("REGION", region);
+    row.put("AMOUNT", amount);
+    return row;
+  }
+
+}
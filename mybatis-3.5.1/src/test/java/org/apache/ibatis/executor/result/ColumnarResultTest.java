@@ -0,0 +1,96 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.ibatis.executor.result.ColumnarResult.Column;
+import org.apache.ibatis.executor.result.ColumnarResult.ColumnType;
+import org.apache.ibatis.type.JdbcType;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultTest {
+
+  @Test
+  void shouldGrowPrimitiveColumnsAndTrackNulls() {
+    Column column = new Column("ID", ColumnType.LONG, 1);
+    for (long i = 0; i < 100; i++) {
+      column.addLong(i, false);
+    }
+    column.addLong(0, true);
+    column.trim();
+
+    assertEquals(101, column.getLongs().length);
+    assertEquals(99, column.getLongs()[99]);
+    assertFalse(column.isNull(0));
+    assertTrue(column.isNull(100));
+  }
+
+  @Test
+  void shouldEncodeStringsWithDictionary() {
+    Column column = new Column("REGION", ColumnType.STRING, 16);
+    column.addString("north");
+    column.addString("south");
+    column.addString(null);
+    column.addString("north");
+    column.trim();
+
+    assertArrayEquals(new int[] { 0, 1, -1, 0 }, column.getCodes());
+    assertEquals(Arrays.asList("north", "south"), column.getDictionary());
+    assertArrayEquals(new String[] { "north", "south", null, "north" }, column.getStrings());
+    assertNull(column.getString(2));
+    assertTrue(column.isNull(2));
+  }
+
+  @Test
+  void shouldRejectReadingColumnAsAnotherType() {
+    Column column = new Column("AMOUNT", ColumnType.DOUBLE, 16);
+    column.trim();
+
+    assertThrows(IllegalStateException.class, column::getLongs);
+    assertEquals(0, column.getDoubles().length);
+  }
+
+  @Test
+  void shouldFindColumnsByName() {
+    Column id = new Column("ID", ColumnType.INT, 16);
+    id.addInt(7, false);
+    id.trim();
+    ColumnarResult result = new ColumnarResult(Arrays.asList(id), 1);
+
+    assertEquals(Arrays.asList("ID"), result.getColumnNames());
+    assertArrayEquals(new int[] { 7 }, result.getInts("ID"));
+    assertThrows(IllegalArgumentException.class, () -> result.getColumn("MISSING"));
+  }
+
+  @Test
+  void shouldPickColumnTypeFromJdbcType() {
+    assertEquals(ColumnType.LONG, ColumnType.forJdbcType(JdbcType.BIGINT));
+    assertEquals(ColumnType.INT, ColumnType.forJdbcType(JdbcType.SMALLINT));
+    assertEquals(ColumnType.DOUBLE, ColumnType.forJdbcType(JdbcType.REAL));
+    assertEquals(ColumnType.STRING, ColumnType.forJdbcType(JdbcType.VARCHAR));
+    assertEquals(ColumnType.OBJECT, ColumnType.forJdbcType(JdbcType.DECIMAL));
+    assertEquals(ColumnType.OBJECT, ColumnType.forJdbcType(null));
+  }
+
+}
@@ -0,0 +1,99 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CompactRowMapTest {
+
+  private final CompactRowMap.Keys keys = new CompactRowMap.Keys(Arrays.asList("ID", "NAME", "BIO"));
+
+  @Test
+  void shouldBehaveLikeHashMapOfSetValues() {
+    CompactRowMap row = new CompactRowMap(keys);
+    row.set(0, 1);
+    row.set(1, "jim");
+
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("ID", 1);
+    expected.put("NAME", "jim");
+    assertEquals(expected, row);
+    assertEquals(expected.hashCode(), row.hashCode());
+    assertEquals(2, row.size());
+    assertEquals("jim", row.get("NAME"));
+    assertTrue(row.containsKey("ID"));
+    assertFalse(row.containsKey("BIO"));
+    assertFalse(row.containsKey("MISSING"));
+    assertNull(row.get("BIO"));
+  }
+
+  @Test
+  void shouldKeepNullValuesSetExplicitly() {
+    CompactRowMap row = new CompactRowMap(keys);
+    row.set(2, null);
+
+    assertEquals(1, row.size());
+    assertTrue(row.containsKey("BIO"));
+    assertNull(row.get("BIO"));
+    assertEquals("{BIO=null}", row.toString());
+
+    row.set(2, "bio");
+    assertEquals(1, row.size());
+    assertEquals("bio", row.get("BIO"));
+  }
+
+  @Test
+  void shouldBeReadOnly() {
+    CompactRowMap row = new CompactRowMap(keys);
+    row.set(0, 1);
+
+    assertThrows(UnsupportedOperationException.class, () -> row.put("NAME", "jim"));
+    assertThrows(UnsupportedOperationException.class, () -> row.remove("ID"));
+    assertThrows(UnsupportedOperationException.class, () -> row.entrySet().iterator().next().setValue(2));
+  }
+
+  @Test
+  void shouldSerialize() throws Exception {
+    CompactRowMap row = new CompactRowMap(keys);
+    row.set(0, 1);
+    row.set(2, null);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(row);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Object copy = in.readObject();
+      assertEquals(row, copy);
+      assertTrue(((Map<?, ?>) copy).containsKey("BIO"));
+    }
+  }
+
+}
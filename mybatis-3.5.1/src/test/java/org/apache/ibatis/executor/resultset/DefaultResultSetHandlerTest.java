@@ -20,8 +20,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -44,8 +46,12 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -87,7 +93,7 @@ class DefaultResultSetHandlerTest {
     when(rs.getMetaData()).thenReturn(rsmd);
     when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
     when(rs.next()).thenReturn(true).thenReturn(false);
-    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rs.getInt(1)).thenReturn(100);
     when(rsmd.getColumnCount()).thenReturn(1);
     when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
     when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
@@ -129,19 +135,131 @@ class DefaultResultSetHandlerTest {
     }
   }
 
-  MappedStatement getMappedStatement() {
+  @Test
+  void shouldResolveColumnIndexesOncePerResultSet() throws Exception {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(3);
+    when(rsmd.getColumnLabel(1)).thenReturn("id");
+    when(rsmd.getColumnLabel(2)).thenReturn("NAME");
+    when(rsmd.getColumnLabel(3)).thenReturn("name");
+
+    final ResultSetWrapper rsw = new ResultSetWrapper(rs, config);
+    assertEquals(1, rsw.getColumnIndex("ID"));
+    assertEquals(2, rsw.getColumnIndex("name"));
+    assertEquals(0, rsw.getColumnIndex("missing"));
+
+    final ResultMap resultMap = new ResultMap.Builder(config, "indexMap", HashMap.class, new ArrayList<ResultMapping>() {
+      {
+        add(new ResultMapping.Builder(config, "name", "Name", registry.getTypeHandler(String.class)).build());
+        add(new ResultMapping.Builder(config, "missing", "missing", registry.getTypeHandler(String.class)).build());
+        add(new ResultMapping.Builder(config, "id", "id", registry.getTypeHandler(Integer.class)).build());
+      }
+    }).build();
+    final int[] columnIndexes = rsw.getPropertyColumnIndexes(resultMap, null);
+    Assertions.assertArrayEquals(new int[] { 2, 0, 1 }, columnIndexes);
+    Assertions.assertSame(columnIndexes, rsw.getPropertyColumnIndexes(resultMap, null));
+  }
+
+  @Test
+  void shouldShareMappingPlanAcrossExecutionsWithSameColumns() throws Exception {
+    final MappedStatement ms = getMappedStatement();
+    final ResultMap resultMap = ms.getResultMaps().get(0);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+
+    final ResultSetWrapper first = new ResultSetWrapper(rs, ms.getConfiguration(), ms);
+    final ResultSetWrapper second = new ResultSetWrapper(rs, ms.getConfiguration(), ms);
+    Assertions.assertSame(first.getPropertyColumnIndexes(resultMap, null), second.getPropertyColumnIndexes(resultMap, null));
+    Assertions.assertSame(first.getMappedColumnNames(resultMap, null), second.getMappedColumnNames(resultMap, null));
+    assertEquals(1, ms.getConfiguration().getResultSetMappingPlanCache().size(ms.getId()));
+
+    when(rsmd.getColumnType(1)).thenReturn(Types.BIGINT);
+    when(rsmd.getColumnClassName(1)).thenReturn(Long.class.getCanonicalName());
+    final ResultSetWrapper third = new ResultSetWrapper(rs, ms.getConfiguration(), ms);
+    Assertions.assertNotSame(first.getPropertyColumnIndexes(resultMap, null), third.getPropertyColumnIndexes(resultMap, null));
+    assertEquals(2, ms.getConfiguration().getResultSetMappingPlanCache().size(ms.getId()));
+  }
+
+  @Test
+  void shouldReadByNameThroughCustomTypeHandlers() throws Exception {
+    final Configuration config = new Configuration();
+    final MappedStatement ms = getMappedStatement(config, new ByNameTypeHandler());
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(false);
+    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = resultSetHandler.handleResultSets(stmt);
+    assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
+  }
+
+  @Test
+  void shouldOnlyReadByIndexThroughBuiltInTypeHandlers() {
+    final TypeHandlerRegistry registry = new Configuration().getTypeHandlerRegistry();
+    Assertions.assertTrue(ResultSetWrapper.readsByIndex(registry.getTypeHandler(Integer.class)));
+    Assertions.assertFalse(ResultSetWrapper.readsByIndex(new UnknownTypeHandler(registry)));
+    Assertions.assertFalse(ResultSetWrapper.readsByIndex(new ByNameTypeHandler()));
+    Assertions.assertFalse(ResultSetWrapper.readsByIndex(new IntegerTypeHandler() {
+    }));
+  }
+
+  MappedStatement getMappedStatement() {
+    final Configuration config = new Configuration();
+    return getMappedStatement(config, config.getTypeHandlerRegistry().getTypeHandler(Integer.class));
+  }
+
+  private MappedStatement getMappedStatement(Configuration config, TypeHandler<?> typeHandler) {
     return new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT).resultMaps(
         new ArrayList<ResultMap>() {
           {
             add(new ResultMap.Builder(config, "testMap", HashMap.class, new ArrayList<ResultMapping>() {
               {
-                add(new ResultMapping.Builder(config, "cOlUmN1", "CoLuMn1", registry.getTypeHandler(Integer.class)).build());
+                add(new ResultMapping.Builder(config, "cOlUmN1", "CoLuMn1", typeHandler).build());
               }
             }).build());
           }
         }).build();
   }
 
+  /**
+   * Only implements reading by name, as result mapping used to need.
+   */
+  static class ByNameTypeHandler extends BaseTypeHandler<Integer> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, Integer parameter, JdbcType jdbcType) throws SQLException {
+      ps.setInt(i, parameter);
+    }
+
+    @Override
+    public Integer getNullableResult(ResultSet rs, String columnName) throws SQLException {
+      return rs.getInt(columnName);
+    }
+
+    @Override
+    public Integer getNullableResult(ResultSet rs, int columnIndex) {
+      return null;
+    }
+
+    @Override
+    public Integer getNullableResult(CallableStatement cs, int columnIndex) {
+      return null;
+    }
+  }
+
 }
@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FlatRowMapperTest {
+
+  @Mock
+  private ResultSet rs;
+
+  @Test
+  void shouldMapFlatResultMap() throws Exception {
+    final Configuration config = new Configuration();
+    final FlatRowMapper mapper = FlatRowMapper.compile(config, authorMap(config), new int[] { 2, 1 }, Collections.emptyList());
+    when(rs.getInt(2)).thenReturn(101);
+    when(rs.getString(1)).thenReturn("jim");
+
+    final Author author = (Author) mapper.map(rs, false);
+    assertEquals(101, author.getId());
+    assertEquals("jim", author.getUsername());
+  }
+
+  @Test
+  void shouldReturnNullForEmptyRow() throws Exception {
+    final Configuration config = new Configuration();
+    final FlatRowMapper mapper = FlatRowMapper.compile(config, authorMap(config), new int[] { 0, 1 }, Collections.emptyList());
+    when(rs.getString(1)).thenReturn(null);
+
+    assertNull(mapper.map(rs, false));
+    assertEquals(Author.class, mapper.map(rs, true).getClass());
+  }
+
+  @Test
+  void shouldNotCompileNestedResultMap() {
+    final Configuration config = new Configuration();
+    config.addResultMap(authorMap(config));
+    final ResultMap blogMap = new ResultMap.Builder(config, "blogMap", Blog.class, new ArrayList<ResultMapping>() {
+      {
+        add(new ResultMapping.Builder(config, "author").nestedResultMapId("authorMap").build());
+      }
+    }).build();
+
+    assertSame(FlatRowMapper.UNSUPPORTED, FlatRowMapper.compile(config, blogMap, new int[] { 0 }, Collections.emptyList()));
+  }
+
+  @Test
+  void shouldMapCompactRowsForMapResultMap() throws Exception {
+    final Configuration config = new Configuration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    final ResultMap resultMap = new ResultMap.Builder(config, "rowMap", Map.class, new ArrayList<ResultMapping>() {
+      {
+        add(new ResultMapping.Builder(config, "name", "NAME", registry.getTypeHandler(String.class)).build());
+      }
+    }).build();
+    final FlatRowMapper mapper = FlatRowMapper.compileCompactMap(config, resultMap, new int[] { 2 }, Collections.emptyList());
+    when(rs.getString(2)).thenReturn("jim");
+
+    final Object row = mapper.map(rs, false);
+    assertEquals(CompactRowMap.class, row.getClass());
+    assertEquals(Collections.singletonMap("name", "jim"), row);
+  }
+
+  private ResultMap authorMap(Configuration config) {
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    return new ResultMap.Builder(config, "authorMap", Author.class, new ArrayList<ResultMapping>() {
+      {
+        add(new ResultMapping.Builder(config, "id", "id", registry.getTypeHandler(int.class)).build());
+        add(new ResultMapping.Builder(config, "username", "username", registry.getTypeHandler(String.class)).build());
+      }
+    }).build();
+  }
+
+}
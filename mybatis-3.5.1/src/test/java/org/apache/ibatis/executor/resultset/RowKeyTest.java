@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.junit.jupiter.api.Test;
+
+class RowKeyTest {
+
+  private final RowKey.Columns blogColumns = new RowKey.Columns("blog", null, new int[] { 1 },
+      new TypeHandler<?>[] { new IntegerTypeHandler() }, false);
+  private final RowKey.Columns postColumns = new RowKey.Columns("post", "P_", new int[] { 2, 3 },
+      new TypeHandler<?>[] { new IntegerTypeHandler(), null }, false);
+
+  @Test
+  void shouldEqualKeysWithSameValues() throws SQLException {
+    RowKey first = blogColumns.createKey(row(1, 10, "a"));
+    RowKey second = blogColumns.createKey(row(1, 11, "b"));
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+    assertNotEquals(first, blogColumns.createKey(row(2, 10, "a")));
+  }
+
+  @Test
+  void shouldTellResultMapsAndPrefixesApart() throws SQLException {
+    RowKey.Columns otherPrefix = new RowKey.Columns("post", "Q_", new int[] { 2, 3 },
+        new TypeHandler<?>[] { new IntegerTypeHandler(), null }, false);
+    assertNotEquals(postColumns.createKey(row(1, 10, "a")), otherPrefix.createKey(row(1, 10, "a")));
+  }
+
+  @Test
+  void shouldCombineWithParentKey() throws SQLException {
+    RowKey post = postColumns.createKey(row(1, 10, "a"));
+    RowKey inFirstBlog = post.combine(blogColumns.createKey(row(1, 10, "a")));
+    RowKey inSecondBlog = post.combine(blogColumns.createKey(row(2, 10, "a")));
+    assertEquals(inFirstBlog, postColumns.createKey(row(1, 10, "a")).combine(blogColumns.createKey(row(1, 99, "z"))));
+    assertNotEquals(inFirstBlog, inSecondBlog);
+    assertNotEquals(post, inFirstBlog);
+  }
+
+  @Test
+  void shouldReturnNullKeyWithoutValues() throws SQLException {
+    assertSame(RowKey.NULL, postColumns.createKey(row(1, null, null)));
+    assertSame(RowKey.NULL, postColumns.createKey(row(1, 10, "a")).combine(RowKey.NULL));
+    assertNotEquals(RowKey.NULL, postColumns.createKey(row(1, null, "a")));
+  }
+
+  @Test
+  void shouldCountNullsWhenEmptyRowsAreReturned() throws SQLException {
+    RowKey.Columns columns = new RowKey.Columns("post", null, new int[] { 2 }, new TypeHandler<?>[] { null }, true);
+    RowKey key = columns.createKey(row(1, null, null));
+    assertNotEquals(RowKey.NULL, key);
+    assertEquals(key, columns.createKey(row(2, null, "b")));
+  }
+
+  private static ResultSet row(Integer blogId, Integer postId, String postCode) {
+    final Object[] values = { blogId, postId, postCode };
+    final boolean[] wasNull = new boolean[1];
+    return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+        (proxy, method, args) -> {
+          if ("wasNull".equals(method.getName())) {
+            return wasNull[0];
+          }
+          final Object value = values[(Integer) args[0] - 1];
+          wasNull[0] = value == null;
+          return value == null && method.getReturnType() == int.class ? 0 : value;
+        });
+  }
+
+}
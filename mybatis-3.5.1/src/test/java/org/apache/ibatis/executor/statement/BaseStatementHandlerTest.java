@@ -145,4 +145,38 @@ class BaseStatementHandlerTest {
         verify(statement).setQueryTimeout(10);
     }
 
+    @Test
+    void specifyAdaptiveFetchSize() throws SQLException {
+        configuration.setAdaptiveFetchSize(true);
+        configuration.getFetchSizeStatistics().addRowCount("id", 200);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(255); // apply a fetch size covering the recorded rows
+    }
+
+    @Test
+    void specifyAdaptiveFetchSizeWithoutRecordedRows() throws SQLException {
+        configuration.setAdaptiveFetchSize(true);
+        doReturn(50).when(configuration).getDefaultFetchSize();
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(50); // apply a default fetch size
+    }
+
+    @Test
+    void specifyAdaptiveFetchSizeAndMappedStatementFetchSize() throws SQLException {
+        configuration.setAdaptiveFetchSize(true);
+        configuration.getFetchSizeStatistics().addRowCount("id", 200);
+        mappedStatementBuilder.fetchSize(30);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(30); // apply a mapped statement fetch size
+    }
+
 }
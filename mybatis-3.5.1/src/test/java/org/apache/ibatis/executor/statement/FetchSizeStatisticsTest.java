@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FetchSizeStatisticsTest {
+
+  private final FetchSizeStatistics statistics = new FetchSizeStatistics();
+
+  @Test
+  void shouldHaveNoFetchSizeBeforeAnyExecution() {
+    assertNull(statistics.nextFetchSize("select", 10, 1000));
+    assertTrue(statistics.getFetchSizes().isEmpty());
+  }
+
+  @Test
+  void shouldCoverTheRowCount() {
+    statistics.addRowCount("select", 100);
+    assertEquals(127, (int) statistics.nextFetchSize("select", 10, 1000));
+    assertEquals(127, (int) statistics.getFetchSizes().get("select"));
+  }
+
+  @Test
+  void shouldStayWithinBounds() {
+    statistics.addRowCount("small", 3);
+    statistics.addRowCount("large", 3000000);
+    assertEquals(10, (int) statistics.nextFetchSize("small", 10, 1000));
+    assertEquals(1000, (int) statistics.nextFetchSize("large", 10, 1000));
+  }
+
+  @Test
+  void shouldIgnoreRareLargeResults() {
+    for (int i = 0; i < 20; i++) {
+      statistics.addRowCount("select", 50);
+    }
+    statistics.addRowCount("select", 100000);
+    assertEquals(63, (int) statistics.nextFetchSize("select", 10, 1000));
+  }
+
+  @Test
+  void shouldFollowRecentExecutions() {
+    for (int i = 0; i < 20; i++) {
+      statistics.addRowCount("select", 5);
+    }
+    for (int i = 0; i < 30; i++) {
+      statistics.addRowCount("select", 500);
+    }
+    assertEquals(511, (int) statistics.nextFetchSize("select", 1, 1000));
+  }
+
+  @Test
+  void shouldKeepStatementsApart() {
+    statistics.addRowCount("a", 20);
+    statistics.addRowCount("b", 300);
+    statistics.nextFetchSize("a", 1, 1000);
+    statistics.nextFetchSize("b", 1, 1000);
+    assertEquals(31, (int) statistics.getFetchSizes().get("a"));
+    assertEquals(511, (int) statistics.getFetchSizes().get("b"));
+  }
+
+}
@@ -0,0 +1,200 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetRowBounds;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class RowBoundsPaginationTest {
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  void shouldLeaveRowBoundsToTheClientByDefault() {
+    configuration.setPaginationDialect(PaginationDialect.LIMIT_OFFSET);
+    assertNull(paginate(new RowBounds(20, 10)));
+  }
+
+  @Test
+  void shouldLeaveDefaultRowBoundsAlone() {
+    configuration.setPushDownRowBounds(true);
+    configuration.setPaginationDialect(PaginationDialect.LIMIT_OFFSET);
+    assertNull(paginate(RowBounds.DEFAULT));
+  }
+
+  @Test
+  void shouldLeaveUnknownDatabasesToTheClient() {
+    configuration.setPushDownRowBounds(true);
+    configuration.setDatabaseId("acme");
+    assertNull(paginate(new RowBounds(20, 10)));
+  }
+
+  @Test
+  void shouldAddLimitAndOffset() {
+    configuration.setPushDownRowBounds(true);
+    configuration.setDatabaseId("mysql");
+    BoundSql boundSql = paginate(new RowBounds(20, 10));
+    assertEquals("select * from users where name = ? LIMIT ? OFFSET ?", boundSql.getSql());
+    assertEquals(3, boundSql.getParameterMappings().size());
+    assertEquals("Joe", boundSql.getAdditionalParameter("_name"));
+    assertEquals(10, parameterValue(boundSql, 1));
+    assertEquals(20, parameterValue(boundSql, 2));
+  }
+
+  @Test
+  void shouldAddOffsetAndFetch() {
+    configuration.setPushDownRowBounds(true);
+    configuration.setDatabaseId("Apache Derby");
+    BoundSql boundSql = paginate(new RowBounds(20, 10));
+    assertEquals("select * from users where name = ? OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", boundSql.getSql());
+    assertEquals(20, parameterValue(boundSql, 1));
+    assertEquals(10, parameterValue(boundSql, 2));
+  }
+
+  @Test
+  void shouldAddOffsetOnlyWithoutLimit() {
+    configuration.setPushDownRowBounds(true);
+    configuration.setPaginationDialect(PaginationDialect.OFFSET_FETCH);
+    BoundSql boundSql = paginate(new RowBounds(20, RowBounds.NO_ROW_LIMIT));
+    assertEquals("select * from users where name = ? OFFSET ? ROWS", boundSql.getSql());
+    assertEquals(2, boundSql.getParameterMappings().size());
+  }
+
+  @Test
+  void shouldWrapWithRownumAndSkipTheOffsetOnTheClient() {
+    configuration.setPushDownRowBounds(true);
+    configuration.setDatabaseId("oracle");
+    RowBoundsPagination.PaginatedBoundSql boundSql = paginate(new RowBounds(20, 10));
+    assertEquals("SELECT * FROM (select * from users where name = ?) page_ WHERE ROWNUM <= ?", boundSql.getSql());
+    assertEquals(2, boundSql.getParameterMappings().size());
+    assertEquals(30L, parameterValue(boundSql, 1));
+    assertEquals(20, boundSql.getRemainingRowBounds().getOffset());
+    assertEquals(RowBounds.NO_ROW_LIMIT, boundSql.getRemainingRowBounds().getLimit());
+  }
+
+  @Test
+  void shouldLeaveNoRowBoundsToTheClient() {
+    configuration.setPushDownRowBounds(true);
+    configuration.setPaginationDialect(PaginationDialect.LIMIT_OFFSET);
+    assertSame(RowBounds.DEFAULT, paginate(new RowBounds(20, 10)).getRemainingRowBounds());
+  }
+
+  @Test
+  void shouldSeekAfterLastKey() {
+    configuration.setPaginationDialect(PaginationDialect.LIMIT_OFFSET);
+    BoundSql boundSql = paginate(new KeysetRowBounds("id", 42, 10));
+    assertEquals("SELECT * FROM (select * from users where name = ?) keyset_ WHERE keyset_.id > ?"
+        + " ORDER BY keyset_.id LIMIT ? OFFSET ?", boundSql.getSql());
+    assertEquals(42, parameterValue(boundSql, 1));
+    assertEquals(10, parameterValue(boundSql, 2));
+    assertEquals(0, parameterValue(boundSql, 3));
+  }
+
+  @Test
+  void shouldSeekFirstPageDescending() {
+    configuration.setPaginationDialect(PaginationDialect.OFFSET_FETCH);
+    BoundSql boundSql = paginate(new KeysetRowBounds("id", null, 10, true));
+    assertEquals("SELECT * FROM (select * from users where name = ?) keyset_"
+        + " ORDER BY keyset_.id DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", boundSql.getSql());
+  }
+
+  @Test
+  void shouldRejectKeysetForNestedResultMaps() {
+    configuration.setPushDownRowBounds(true);
+    configuration.setPaginationDialect(PaginationDialect.LIMIT_OFFSET);
+    ResultMap nested = new ResultMap.Builder(configuration, "nested", Object.class, new ArrayList<>()).build();
+    List<ResultMapping> resultMappings = new ArrayList<>();
+    resultMappings.add(new ResultMapping.Builder(configuration, "children").nestedResultMapId("nested").build());
+    configuration.addResultMap(nested);
+    ResultMap parent = new ResultMap.Builder(configuration, "parent", Object.class, resultMappings).build();
+    MappedStatement ms = statement(StatementType.PREPARED, parent);
+    assertNull(RowBoundsPagination.paginate(ms, ms.getBoundSql(null), new RowBounds(20, 10)));
+    assertThrows(ExecutorException.class,
+        () -> RowBoundsPagination.paginate(ms, ms.getBoundSql(null), new KeysetRowBounds("id", 42, 10)));
+  }
+
+  @Test
+  void shouldRejectKeysetForCallableStatements() {
+    configuration.setPaginationDialect(PaginationDialect.LIMIT_OFFSET);
+    MappedStatement ms = statement(StatementType.CALLABLE, null);
+    assertThrows(ExecutorException.class,
+        () -> RowBoundsPagination.paginate(ms, ms.getBoundSql(null), new KeysetRowBounds("id", 42, 10)));
+  }
+
+  @Test
+  void shouldLeavePlainStatementsToTheClient() {
+    configuration.setPushDownRowBounds(true);
+    configuration.setPaginationDialect(PaginationDialect.LIMIT_OFFSET);
+    MappedStatement ms = statement(StatementType.STATEMENT, null);
+    assertNull(RowBoundsPagination.paginate(ms, ms.getBoundSql(null), new RowBounds(20, 10)));
+    assertThrows(ExecutorException.class,
+        () -> RowBoundsPagination.paginate(ms, ms.getBoundSql(null), new KeysetRowBounds("id", 42, 10)));
+  }
+
+  @Test
+  void shouldRequireDialectForKeyset() {
+    assertThrows(ExecutorException.class, () -> paginate(new KeysetRowBounds("id", 42, 10)));
+  }
+
+  @Test
+  void shouldRejectKeyColumnExpressions() {
+    assertThrows(IllegalArgumentException.class, () -> new KeysetRowBounds("id; drop table users", 42, 10));
+  }
+
+  private RowBoundsPagination.PaginatedBoundSql paginate(RowBounds rowBounds) {
+    MappedStatement ms = statement(StatementType.PREPARED, null);
+    BoundSql boundSql = ms.getBoundSql(null);
+    boundSql.setAdditionalParameter("_name", "Joe");
+    return RowBoundsPagination.paginate(ms, boundSql, rowBounds);
+  }
+
+  private MappedStatement statement(StatementType statementType, ResultMap resultMap) {
+    List<ParameterMapping> parameterMappings = new ArrayList<>();
+    parameterMappings.add(new ParameterMapping.Builder(configuration, "_name", String.class).build());
+    MappedStatement.Builder builder = new MappedStatement.Builder(configuration, "selectUsers",
+        new StaticSqlSource(configuration, "select * from users where name = ?", parameterMappings), SqlCommandType.SELECT)
+        .statementType(statementType);
+    if (resultMap != null) {
+      builder.resultMaps(Collections.singletonList(resultMap));
+    }
+    return builder.build();
+  }
+
+  private Object parameterValue(BoundSql boundSql, int index) {
+    return boundSql.getAdditionalParameter(boundSql.getParameterMappings().get(index).getProperty());
+  }
+
+}
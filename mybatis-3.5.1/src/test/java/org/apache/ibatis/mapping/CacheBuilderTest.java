@@ -18,6 +18,9 @@ package org.apache.ibatis.mapping;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.compression.Lz4Codec;
+import org.apache.ibatis.cache.decorators.CompressedCache;
+import org.apache.ibatis.cache.decorators.SerializedCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -43,6 +46,16 @@ class CacheBuilderTest {
       .hasMessage("Failed cache initialization for 'test' on 'org.apache.ibatis.mapping.CacheBuilderTest$InitializingFailureCache'");
   }
 
+  @Test
+  void testCompression() {
+    Cache cache = new CacheBuilder("test").readWrite(true).compression(Lz4Codec.class).compressionThreshold(0).build();
+    Cache serialized = unwrap(unwrap(cache));
+    Assertions.assertThat(serialized).isInstanceOf(SerializedCache.class);
+    Assertions.assertThat((Cache) unwrap(serialized)).isInstanceOf(CompressedCache.class);
+    cache.putObject("key", "value");
+    Assertions.assertThat(cache.getObject("key")).isEqualTo("value");
+  }
+
   @SuppressWarnings("unchecked")
   private <T> T unwrap(Cache cache) {
     Field field;
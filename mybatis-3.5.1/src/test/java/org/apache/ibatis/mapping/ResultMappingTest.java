@@ -46,4 +46,22 @@ class ResultMappingTest {
         .build());
   }
 
+  @Test
+  void shouldFailWithABatchSizeButNoBatchKey() {
+    Assertions.assertThrows(IllegalStateException.class, () -> new ResultMapping.Builder(configuration, "prop")
+        .column("column")
+        .nestedQueryId("nested query ID")
+        .batchSize(10)
+        .build());
+  }
+
+  @Test
+  void shouldFailWithABatchSizeOnANestedResultMap() {
+    Assertions.assertThrows(IllegalStateException.class, () -> new ResultMapping.Builder(configuration, "prop")
+        .nestedResultMapId("nested resultMap")
+        .batchSize(10)
+        .batchKey("id")
+        .build());
+  }
+
 }
@@ -15,6 +15,10 @@
  */
 package org.apache.ibatis.reflection.factory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -61,6 +65,46 @@ class DefaultObjectFactoryTest {
     }
   }
 
+  @Test
+  void createClassRepeatedlyWithCachedConstructor() {
+    DefaultObjectFactory defaultObjectFactory = new DefaultObjectFactory();
+    for (int i = 0; i < 3; i++) {
+      TestClass testClass = defaultObjectFactory.create(TestClass.class,
+          new ArrayList<>(Arrays.asList(String.class, Integer.class)), Arrays.asList("foo" + i, i));
+      Assertions.assertEquals((Integer) i, testClass.myInteger);
+      Assertions.assertEquals("foo" + i, testClass.myString);
+    }
+  }
+
+  @Test
+  void createClassWithPrivateConstructorAndPrimitiveArgument() {
+    DefaultObjectFactory defaultObjectFactory = new DefaultObjectFactory();
+    PrivateClass privateClass = defaultObjectFactory.create(PrivateClass.class,
+        Collections.singletonList(int.class), Collections.singletonList(7));
+    Assertions.assertEquals(7, privateClass.value);
+    Assertions.assertEquals(-1, defaultObjectFactory.create(PrivateClass.class).value);
+  }
+
+  @Test
+  void createClassThrowsWhenConstructorFails() {
+    DefaultObjectFactory defaultObjectFactory = new DefaultObjectFactory();
+    ReflectionException e = Assertions.assertThrows(ReflectionException.class, () -> defaultObjectFactory.create(PrivateClass.class,
+        Collections.singletonList(int.class), Collections.singletonList(-2)));
+    Assertions.assertTrue(e.getMessage().contains("negative"));
+  }
+
+  @Test
+  void createClassAfterDeserialization() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new DefaultObjectFactory());
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      DefaultObjectFactory defaultObjectFactory = (DefaultObjectFactory) in.readObject();
+      Assertions.assertEquals(-1, defaultObjectFactory.create(PrivateClass.class).value);
+    }
+  }
+
   @Test
   void creatHashMap() {
      DefaultObjectFactory defaultObjectFactory=new DefaultObjectFactory();
@@ -94,4 +138,19 @@ class DefaultObjectFactoryTest {
     Set set = defaultObjectFactory.create(Set.class);
     Assertions.assertTrue(set instanceof HashSet, " set should be HashSet");
   }
+
+  private static class PrivateClass {
+    private final int value;
+
+    private PrivateClass() {
+      this(-1);
+    }
+
+    private PrivateClass(int value) {
+      if (value < -1) {
+        throw new IllegalArgumentException("negative");
+      }
+      this.value = value;
+    }
+  }
 }
@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.AsyncSqlSession;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionException;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncSessionTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private ExecutorService executorService;
+  private final AtomicInteger submitted = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/async_session/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+            "org/apache/ibatis/submitted/async_session/CreateDB.sql");
+
+    executorService = Executors.newFixedThreadPool(4);
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(task -> {
+      submitted.incrementAndGet();
+      executorService.execute(task);
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorService.shutdown();
+  }
+
+  @Test
+  void shouldRunMapperMethodsOnTheExecutor() {
+    Mapper mapper = sqlSessionFactory.openAsyncSession().getMapper(Mapper.class);
+    CompletableFuture<User> user = mapper.getUser(1);
+    CompletableFuture<List<User>> users = mapper.getUsers();
+    assertEquals("User1", user.join().getName());
+    assertEquals(2, users.join().size());
+    assertEquals(2, mapper.countUsers());
+    assertEquals(3, submitted.get());
+  }
+
+  @Test
+  void shouldRunStatementsOnTheExecutor() {
+    AsyncSqlSession asyncSqlSession = sqlSessionFactory.openAsyncSession();
+    CompletableFuture<User> user = asyncSqlSession.selectOneAsync(Mapper.class.getName() + ".getUser", 2);
+    CompletableFuture<Integer> inserted = asyncSqlSession.insertAsync(Mapper.class.getName() + ".insertUser",
+        new User(3, "User3"));
+    assertEquals("User2", user.join().getName());
+    assertEquals(1, (int) inserted.join());
+    // each call runs in its own auto-commit session
+    List<User> users = asyncSqlSession.<User>selectListAsync(Mapper.class.getName() + ".getUsers").join();
+    assertEquals(3, users.size());
+  }
+
+  @Test
+  void shouldReturnCompletedFuturesFromASession() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      CompletableFuture<User> user = sqlSession.getMapper(Mapper.class).getUser(1);
+      assertTrue(user.isDone());
+      assertEquals("User1", user.join().getName());
+      assertEquals(0, submitted.get());
+    }
+  }
+
+  @Test
+  void shouldRunCallsInTheTransactionOfTheSession() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.async().getMapper(Mapper.class);
+      mapper.insertUser(new User(3, "User3"));
+      CompletableFuture<List<User>> users = mapper.getUsers();
+      assertEquals(3, users.join().size());
+      sqlSession.rollback(true);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(2, sqlSession.getMapper(Mapper.class).countUsers());
+    }
+  }
+
+  @Test
+  void shouldChainAllCallsOfASessionOnOneView() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertSame(sqlSession.async(), sqlSession.async());
+    }
+  }
+
+  @Test
+  void shouldRequireAnExecutor() {
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(null);
+    assertThrows(SqlSessionException.class, sqlSessionFactory::openAsyncSession);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertThrows(SqlSessionException.class, sqlSession::async);
+    }
+  }
+
+  @Test
+  void shouldCompleteExceptionally() {
+    CompletableFuture<User> user = sqlSessionFactory.openAsyncSession()
+        .selectOneAsync(Mapper.class.getName() + ".getUsers");
+    CompletionException e = assertThrows(CompletionException.class, user::join);
+    assertTrue(e.getCause() instanceof TooManyResultsException);
+  }
+
+}
@@ -0,0 +1,116 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_flush;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchFlushTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_flush/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+            "org/apache/ibatis/submitted/batch_flush/CreateDB.sql");
+  }
+
+  @Test
+  void shouldFlushEveryBatchFlushSizeStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 7; i++) {
+        mapper.insertUser(new User(i, "User" + i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertEquals(3, results.get(0).getUpdateCounts().length);
+      assertEquals(3, results.get(1).getUpdateCounts().length);
+      assertEquals(1, results.get(2).getUpdateCounts().length);
+      // automatic flushes do not keep the parameter objects
+      assertEquals(0, results.get(0).getParameterObjects().size());
+      assertEquals(0, results.get(1).getParameterObjects().size());
+      assertEquals(1, results.get(2).getParameterObjects().size());
+      assertEquals(7, mapper.countUsers());
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldKeepOneResultPerFlushedStatement() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 4; i++) {
+        mapper.insertUser(new User(i, "User" + i));
+      }
+      mapper.insertDept(new User(1, "Dept1"));
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertEquals(3, results.get(0).getUpdateCounts().length);
+      assertEquals(1, results.get(1).getUpdateCounts().length);
+      assertEquals(results.get(0).getMappedStatement(), results.get(1).getMappedStatement());
+      assertEquals(1, results.get(2).getUpdateCounts().length);
+    }
+  }
+
+  @Test
+  void shouldFlushOnEstimatedSize() {
+    sqlSessionFactory.getConfiguration().setBatchFlushSize(null);
+    sqlSessionFactory.getConfiguration().setBatchFlushBytes(1L);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 5; i++) {
+        mapper.insertUser(new User(i, "User" + i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      // every statement exceeds the estimated size on its own
+      assertEquals(5, results.size());
+      for (BatchResult result : results) {
+        assertEquals(1, result.getUpdateCounts().length);
+        assertEquals(0, result.getParameterObjects().size());
+      }
+    }
+  }
+
+  @Test
+  void shouldRollbackAutoFlushedStatements() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 4; i++) {
+        mapper.insertUser(new User(i, "User" + i));
+      }
+      sqlSession.rollback(true);
+      assertEquals(0, mapper.countUsers());
+    }
+  }
+
+}
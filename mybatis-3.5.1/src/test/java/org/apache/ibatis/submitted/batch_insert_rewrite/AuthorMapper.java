@@ -0,0 +1,39 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_insert_rewrite;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+
+public interface AuthorMapper {
+
+  @Insert("insert into author (id, username, password, email) values (#{id}, #{name}, #{name}, #{name})")
+  void insertAuthor(User user);
+
+  @Insert("insert into author (username, password, email) values (#{name}, #{name}, #{name})")
+  @Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
+  void insertAuthorWithGeneratedKey(User user);
+
+  @Select("select count(*) from author where id >= 9000")
+  int countNewAuthors();
+
+  @Select("select id, username as name from author where id >= 9000 order by id")
+  List<User> selectNewAuthors();
+
+}
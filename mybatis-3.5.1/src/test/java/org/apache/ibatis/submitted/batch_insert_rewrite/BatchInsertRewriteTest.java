@@ -0,0 +1,182 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_insert_rewrite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchInsertRewriteTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_insert_rewrite/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+            "org/apache/ibatis/submitted/batch_insert_rewrite/CreateDB.sql");
+  }
+
+  @Test
+  void shouldSendMultiRowInserts() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 7; i++) {
+        mapper.insertUser(new User(i, "User" + i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      // two chunks of three rows, then the remaining row on its own
+      assertEquals(2, results.size());
+      assertEquals("insert into users (id, name) values (?, ?), (?, ?), (?, ?)", results.get(0).getSql());
+      assertEquals(6, results.get(0).getParameterObjects().size());
+      assertEquals(6, results.get(0).getUpdateCounts().length);
+      assertEquals(1, results.get(0).getUpdateCounts()[0]);
+      assertEquals("insert into users (id, name) values (?, ?)", results.get(1).getSql());
+      assertEquals(1, results.get(1).getUpdateCounts().length);
+      assertEquals(7, mapper.countUsers());
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldMapGeneratedKeysToEachRow() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = new ArrayList<>();
+      for (int i = 1; i <= 5; i++) {
+        User user = new User(null, "User" + i);
+        mapper.insertUserWithGeneratedKey(user);
+        users.add(user);
+      }
+      sqlSession.flushStatements();
+      for (int i = 0; i < users.size(); i++) {
+        assertNotNull(users.get(i).getId());
+        assertEquals(users.get(0).getId() + i, (int) users.get(i).getId());
+      }
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldKeepStatementOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUser(new User(1, "User1"));
+      mapper.insertUser(new User(2, "User2"));
+      mapper.insertUserWithGeneratedKey(new User(null, "User3"));
+      mapper.insertUser(new User(4, "User4"));
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertEquals(2, results.get(0).getParameterObjects().size());
+      assertEquals(1, results.get(1).getParameterObjects().size());
+      assertEquals(1, results.get(2).getParameterObjects().size());
+    }
+  }
+
+  @Test
+  void shouldDiscardPendingRowsOnRollback() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUser(new User(1, "User1"));
+      mapper.insertUser(new User(2, "User2"));
+      sqlSession.rollback(true);
+      assertEquals(0, mapper.countUsers());
+    }
+  }
+
+  @Test
+  void shouldSendMultiRowInsertsToDerby() throws Exception {
+    Configuration configuration = new Configuration(
+        new Environment("derby", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    configuration.setRewriteBatchedInserts(true);
+    configuration.setBatchInsertParameterLimit(10);
+    configuration.addMapper(AuthorMapper.class);
+    SqlSessionFactory derbySessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    try (SqlSession sqlSession = derbySessionFactory.openSession(ExecutorType.BATCH)) {
+      AuthorMapper mapper = sqlSession.getMapper(AuthorMapper.class);
+      for (int i = 0; i < 5; i++) {
+        mapper.insertAuthor(new User(9000 + i, "author" + i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      // two chunks of two rows, then the remaining row on its own
+      assertEquals(2, results.size());
+      assertTrue(results.get(0).getSql().endsWith("), (?, ?, ?, ?)"));
+      assertEquals(4, results.get(0).getParameterObjects().size());
+      assertArrayEquals(new int[] { 1, 1, 1, 1 }, results.get(0).getUpdateCounts());
+      assertEquals("insert into author (id, username, password, email) values (?, ?, ?, ?)", results.get(1).getSql());
+      assertArrayEquals(new int[] { 1 }, results.get(1).getUpdateCounts());
+      List<User> authors = mapper.selectNewAuthors();
+      assertEquals(5, authors.size());
+      for (int i = 0; i < 5; i++) {
+        assertEquals(9000 + i, (int) authors.get(i).getId());
+        assertEquals("author" + i, authors.get(i).getName());
+      }
+      sqlSession.rollback(true);
+    }
+  }
+
+  @Test
+  void shouldMapGeneratedKeysToEachRowOnDerby() throws Exception {
+    Configuration configuration = new Configuration(
+        new Environment("derby", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource()));
+    configuration.setRewriteBatchedInserts(true);
+    configuration.addMapper(AuthorMapper.class);
+    SqlSessionFactory derbySessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    try (SqlSession sqlSession = derbySessionFactory.openSession(ExecutorType.BATCH)) {
+      AuthorMapper mapper = sqlSession.getMapper(AuthorMapper.class);
+      List<User> users = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        User user = new User(null, "generated" + i);
+        mapper.insertAuthorWithGeneratedKey(user);
+        users.add(user);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(1, results.size());
+      assertTrue(results.get(0).getSql().endsWith("), (?, ?, ?), (?, ?, ?)"));
+      assertArrayEquals(new int[] { 1, 1, 1 }, results.get(0).getUpdateCounts());
+      List<User> authors = mapper.selectNewAuthors();
+      assertEquals(3, authors.size());
+      for (int i = 0; i < 3; i++) {
+        assertNotNull(users.get(i).getId());
+        assertEquals(authors.get(i).getId(), users.get(i).getId());
+        assertEquals(users.get(i).getName(), authors.get(i).getName());
+      }
+      sqlSession.rollback(true);
+    }
+  }
+
+}
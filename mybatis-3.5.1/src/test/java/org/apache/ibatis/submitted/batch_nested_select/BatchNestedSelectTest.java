@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_nested_select;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchNestedSelectTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+            "org/apache/ibatis/submitted/batch_nested_select/CreateDB.sql");
+    StatementCounter.COUNT.set(0);
+  }
+
+  @Test
+  void shouldLoadNestedSelectsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogs();
+      // one query for the blogs, one for the two authors and three for the posts of five blogs, two at a time
+      assertEquals(5, StatementCounter.COUNT.get());
+      assertEquals(5, blogs.size());
+      assertPosts(blogs);
+      assertEquals("Author1", blogs.get(0).getAuthor().getName());
+      assertEquals("Author2", blogs.get(1).getAuthor().getName());
+      assertEquals("Author1", blogs.get(4).getAuthor().getName());
+    }
+  }
+
+  @Test
+  void shouldLoadTheWholeBatchOnFirstAccess() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogsLazily();
+      assertEquals(1, StatementCounter.COUNT.get());
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertEquals(2, StatementCounter.COUNT.get());
+      assertEquals(1, blogs.get(1).getPosts().size());
+      assertEquals(2, StatementCounter.COUNT.get());
+      assertPosts(blogs);
+      assertEquals(4, StatementCounter.COUNT.get());
+    }
+  }
+
+  @Test
+  void shouldRunOneSelectPerRowWithAResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).selectBlogs(context -> blogs.add(context.getResultObject()));
+      // the values have to be set before each blog is handed over
+      assertEquals(11, StatementCounter.COUNT.get());
+      assertPosts(blogs);
+    }
+  }
+
+  @Test
+  void shouldResolveCircularBatchesOfOneKeyFromTheExecutingQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Author> authors = sqlSession.getMapper(Mapper.class).selectAuthorsWithBlogsByIds(Collections.singletonList(1));
+      // the authors of the blogs are the authors being read
+      assertEquals(2, StatementCounter.COUNT.get());
+      Author author = authors.get(0);
+      assertEquals(3, author.getBlogs().size());
+      for (Blog blog : author.getBlogs()) {
+        assertSame(author, blog.getAuthor());
+      }
+    }
+  }
+
+  @Test
+  void shouldResolveCircularBatchesFromTheExecutingQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Author> authors = sqlSession.getMapper(Mapper.class).selectAuthorsWithBlogsByIds(Arrays.asList(1, 2));
+      assertEquals(2, StatementCounter.COUNT.get());
+      assertEquals(2, authors.size());
+      assertEquals(3, authors.get(0).getBlogs().size());
+      assertEquals(2, authors.get(1).getBlogs().size());
+      for (Author author : authors) {
+        for (Blog blog : author.getBlogs()) {
+          assertSame(author, blog.getAuthor());
+        }
+      }
+    }
+  }
+
+  private void assertPosts(List<Blog> blogs) {
+    assertEquals(2, blogs.get(0).getPosts().size());
+    assertEquals(1, blogs.get(1).getPosts().size());
+    assertTrue(blogs.get(2).getPosts().isEmpty());
+    assertEquals(3, blogs.get(3).getPosts().size());
+    assertEquals("Post7", blogs.get(4).getPosts().get(0).getSubject());
+  }
+
+}
@@ -0,0 +1,101 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_results;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResult.Column;
+import org.apache.ibatis.executor.result.ColumnarResult.ColumnType;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultsTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/columnar_results/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+            "org/apache/ibatis/submitted/columnar_results/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReadColumnsIntoPrimitiveArrays() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.selectColumns("org.apache.ibatis.submitted.columnar_results.Mapper.getSales");
+      assertEquals(4, result.getRowCount());
+      assertEquals(Arrays.asList("ID", "QUANTITY", "PRICE", "REGION", "AMOUNT"), result.getColumnNames());
+      assertArrayEquals(new long[] { 1, 2, 3, 4 }, result.getLongs("ID"));
+      assertArrayEquals(new int[] { 3, 1, 0, 2 }, result.getInts("QUANTITY"));
+      assertArrayEquals(new double[] { 1.5, 2.25, 0, 0.5 }, result.getDoubles("PRICE"));
+
+      Column quantity = result.getColumn("QUANTITY");
+      assertEquals(ColumnType.INT, quantity.getType());
+      assertFalse(quantity.isNull(1));
+      assertTrue(quantity.isNull(2));
+    }
+  }
+
+  @Test
+  void shouldEncodeRepeatedStrings() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getSales();
+      Column region = result.getColumn("REGION");
+      assertEquals(Arrays.asList("north", "south"), region.getDictionary());
+      assertArrayEquals(new int[] { 0, 1, -1, 0 }, region.getCodes());
+      assertArrayEquals(new String[] { "north", "south", null, "north" }, result.getStrings("REGION"));
+    }
+  }
+
+  @Test
+  void shouldKeepDecimalsAsObjects() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getSales();
+      Object[] amounts = result.getObjects("AMOUNT");
+      assertEquals(new BigDecimal("4.50"), amounts[0]);
+      assertNull(amounts[2]);
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getSalesPage(new RowBounds(1, 2));
+      assertEquals(2, result.getRowCount());
+      assertArrayEquals(new long[] { 2, 3 }, result.getLongs("ID"));
+    }
+  }
+
+}
@@ -0,0 +1,30 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table sales if exists;
+
+create table sales (
+  id bigint primary key,
+  quantity int,
+  price double,
+  region varchar(20),
+  amount decimal(10, 2)
+);
+
+insert into sales (id, quantity, price, region, amount) values (1, 3, 1.5, 'north', 4.50);
+insert into sales (id, quantity, price, region, amount) values (2, 1, 2.25, 'south', 2.25);
+insert into sales (id, quantity, price, region, amount) values (3, null, null, null, null);
+insert into sales (id, quantity, price, region, amount) values (4, 2, 0.5, 'north', 1.00);
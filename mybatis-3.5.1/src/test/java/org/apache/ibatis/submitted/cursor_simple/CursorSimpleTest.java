@@ -17,6 +17,7 @@ package org.apache.ibatis.submitted.cursor_simple;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
@@ -29,9 +30,12 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class CursorSimpleTest {
 
@@ -157,6 +161,27 @@ class CursorSimpleTest {
     }
   }
 
+  @Test
+  void testPrefetchingCursorWithRowBound() {
+    sqlSessionFactory.getConfiguration().setCursorPrefetchRows(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> usersCursor = sqlSession.selectCursor("getAllUsers", null, new RowBounds(1, 3));
+      Assertions.assertTrue(usersCursor instanceof PrefetchingCursor);
+
+      List<String> names = new ArrayList<>();
+      for (User user : usersCursor) {
+        names.add(user.getName());
+        Assertions.assertEquals(names.size(), usersCursor.getCurrentIndex());
+      }
+
+      Assertions.assertEquals(Arrays.asList("User2", "User3", "User4"), names);
+      Assertions.assertFalse(usersCursor.isOpen());
+      Assertions.assertTrue(usersCursor.isConsumed());
+    } finally {
+      sqlSessionFactory.getConfiguration().setCursorPrefetchRows(null);
+    }
+  }
+
   @Test
   void testCursorIteratorNoSuchElementExceptionWithHasNext() throws IOException {
 
@@ -325,6 +350,32 @@ class CursorSimpleTest {
     Assertions.fail("Should have returned earlier");
   }
 
+  @Test
+  void shouldStreamUsers() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      try (Stream<User> users = mapper.getAllUsersAsStream()) {
+        List<String> names = users.map(User::getName).collect(Collectors.toList());
+        Assertions.assertEquals(Arrays.asList("User1", "User2", "User3", "User4", "User5"), names);
+      }
+    }
+  }
+
+  @Test
+  void shouldCloseCursorWhenStreamIsClosed() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Stream<User> users = sqlSession.selectStream("getAllUsers", null, new RowBounds(1, 3));
+      Assertions.assertEquals("User2", users.findFirst().get().getName());
+      users.close();
+
+      // the session is free to run other statements
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      try (Stream<User> all = mapper.getAllUsersAsStream()) {
+        Assertions.assertEquals(5, all.count());
+      }
+    }
+  }
+
   @Test
   void shouldGetAllUserUsingAnnotationBasedMapper() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
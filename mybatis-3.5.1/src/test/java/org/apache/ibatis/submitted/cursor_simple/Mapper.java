@@ -15,10 +15,14 @@
  */
 package org.apache.ibatis.submitted.cursor_simple;
 
+import java.util.stream.Stream;
+
 import org.apache.ibatis.cursor.Cursor;
 
 public interface Mapper {
 
   Cursor<User> getAllUsers();
 
+  Stream<User> getAllUsersAsStream();
+
 }
@@ -0,0 +1,130 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.insert_all;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InsertAllTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/insert_all/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+            "org/apache/ibatis/submitted/insert_all/CreateDB.sql");
+  }
+
+  @Test
+  void shouldInsertAllInChunks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = new ArrayList<>();
+      for (int i = 1; i <= 10; i++) {
+        users.add(new User(i, "User" + i));
+      }
+      int rows = sqlSession.insertAll("org.apache.ibatis.submitted.insert_all.Mapper.insertUser", users, 3);
+      assertEquals(10, rows);
+      assertEquals(10, sqlSession.getMapper(Mapper.class).countUsers());
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldInsertStreamThroughMapper() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      int rows = mapper.insertUsers(IntStream.rangeClosed(1, 9).mapToObj(i -> new User(i, "User" + i)));
+      assertEquals(9, rows);
+      assertEquals(9, mapper.countUsers());
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldWrapCollectionParametersLikeInsert() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<List<Object>> rows = new ArrayList<>();
+      for (int i = 1; i <= 4; i++) {
+        rows.add(Arrays.asList(i, "User" + i));
+      }
+      assertEquals(4, sqlSession.insertAll("org.apache.ibatis.submitted.insert_all.Mapper.insertUserFromList", rows, 3));
+      assertEquals(4, sqlSession.getMapper(Mapper.class).countUsers());
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldAssignGeneratedKeys() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = new ArrayList<>();
+      for (int i = 1; i <= 5; i++) {
+        users.add(new User(null, "User" + i));
+      }
+      sqlSession.insertAll("org.apache.ibatis.submitted.insert_all.Mapper.insertUserWithGeneratedKey", users, 2);
+      for (int i = 0; i < users.size(); i++) {
+        assertNotNull(users.get(i).getId());
+        assertEquals(users.get(0).getId() + i, (int) users.get(i).getId());
+      }
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldRunPendingBatchFirst() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUser(new User(1, "User1"));
+      int rows = mapper.insertUsers(IntStream.rangeClosed(2, 6).mapToObj(i -> new User(i, "User" + i)));
+      assertEquals(5, rows);
+      assertEquals(6, mapper.countUsers());
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldStopAtFailingChunk() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      // the duplicate id fails the third chunk
+      assertThrows(PersistenceException.class,
+          () -> mapper.insertUsers(IntStream.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 9, 10).mapToObj(i -> new User(i, "User" + i))));
+      sqlSession.rollback();
+      assertEquals(0, mapper.countUsers());
+    }
+  }
+
+}
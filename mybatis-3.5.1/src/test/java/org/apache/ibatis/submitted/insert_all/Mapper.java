@@ -0,0 +1,43 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.insert_all;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @Insert("insert into users (id, name) values (#{id}, #{name})")
+  void insertUser(User user);
+
+  @Insert("insert into users (id, name) values (#{id}, #{name})")
+  int insertUsers(Stream<User> users);
+
+  @Insert("insert into users (id, name) values (#{list[0]}, #{list[1]})")
+  void insertUserFromList(List<Object> values);
+
+  @Insert("insert into users2 (name) values (#{name})")
+  @Options(useGeneratedKeys = true, keyProperty = "id")
+  void insertUserWithGeneratedKey(User user);
+
+  @Select("select count(*) from users")
+  int countUsers();
+
+}
@@ -17,10 +17,21 @@ package org.apache.ibatis.submitted.nestedresulthandler;
 
 import java.util.List;
 
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
+
 public interface Mapper {
   List<Person> getPersons();
 
   List<Person> getPersonsWithItemsOrdered();
 
   List<PersonItemPair> getPersonItemPairs();
+
+  @Select("select p.id as person_id, p.name as person_name, i.id as item_id, i.name as item_name"
+      + " from persons p, items i where p.id = i.owner order by p.id, i.id")
+  @ResultMap("personResult")
+  @Options(resultOrdered = true)
+  void streamPersons(ResultHandler<Person> handler);
 }
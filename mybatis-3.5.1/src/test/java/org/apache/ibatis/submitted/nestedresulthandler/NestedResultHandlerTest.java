@@ -16,6 +16,8 @@
 package org.apache.ibatis.submitted.nestedresulthandler;
 
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.ibatis.BaseDataTest;
@@ -82,6 +84,21 @@ class NestedResultHandlerTest {
     }
   }
 
+  @Test
+  void testStreamPersonsOrderedByAnnotation() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<String> streamed = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).streamPersons(context -> {
+        Person person = context.getResultObject();
+        streamed.add(person.getName() + ":" + person.getItems().size());
+        if ("sister".equals(person.getName())) {
+          context.stop();
+        }
+      });
+      Assertions.assertEquals(Arrays.asList("grandma:2", "sister:2"), streamed);
+    }
+  }
+
   @Test
   void testUnorderedGetPersonWithHandler() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
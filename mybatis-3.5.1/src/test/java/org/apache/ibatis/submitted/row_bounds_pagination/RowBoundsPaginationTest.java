@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2009-2015 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.row_bounds_pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.KeysetRowBounds;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RowBoundsPaginationTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/row_bounds_pagination/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+            "org/apache/ibatis/submitted/row_bounds_pagination/CreateDB.sql");
+    SqlRecorder.SQL.clear();
+  }
+
+  @Test
+  void shouldPushOffsetAndLimitIntoSql() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(new RowBounds(2, 3));
+      assertEquals("[3, 4, 5]", ids(users));
+      assertTrue(SqlRecorder.SQL.get(0).endsWith("LIMIT ? OFFSET ?"));
+    }
+  }
+
+  @Test
+  void shouldReturnRemainingRowsPastTheEnd() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(new RowBounds(5, 10));
+      assertEquals("[6, 7]", ids(users));
+    }
+  }
+
+  @Test
+  void shouldSeekPagesByKey() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> first = mapper.getUsersByKey(new KeysetRowBounds("id", 0, 3));
+      assertEquals("[1, 2, 3]", ids(first));
+      List<User> second = mapper.getUsersByKey(new KeysetRowBounds("id", 3, 3));
+      assertEquals("[4, 5, 6]", ids(second));
+      List<User> last = mapper.getUsersByKey(new KeysetRowBounds("id", 6, 3));
+      assertEquals("[7]", ids(last));
+    }
+  }
+
+  @Test
+  void shouldSeekPagesByKeyDescending() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersByKey(new KeysetRowBounds("id", 5, 2, true));
+      assertEquals("[4, 3]", ids(users));
+    }
+  }
+
+  private static String ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList()).toString();
+  }
+
+}